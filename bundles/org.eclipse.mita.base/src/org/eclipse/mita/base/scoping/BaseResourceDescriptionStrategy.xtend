@@ -15,9 +15,13 @@ package org.eclipse.mita.base.scoping
 
 import com.google.common.collect.Maps
 import com.google.inject.Inject
+import com.google.inject.Provider
 import java.util.List
 import java.util.Map
+import java.util.concurrent.ForkJoinPool
+import org.eclipse.emf.common.notify.impl.AdapterImpl
 import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.impl.ResourceImpl
 import org.eclipse.mita.base.types.Exportable
 import org.eclipse.mita.base.types.GeneratedObject
@@ -31,6 +35,8 @@ import org.eclipse.mita.base.typesystem.IConstraintFactory
 import org.eclipse.mita.base.typesystem.serialization.SerializationAdapter
 import org.eclipse.mita.base.typesystem.solver.CoerciveSubtypeSolver
 import org.eclipse.mita.base.util.BaseUtils
+import org.eclipse.xtend.lib.annotations.Accessors
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import org.eclipse.xtext.naming.IQualifiedNameProvider
 import org.eclipse.xtext.naming.QualifiedName
 import org.eclipse.xtext.nodemodel.INode
@@ -56,6 +62,9 @@ class BaseResourceDescriptionStrategy extends DefaultResourceDescriptionStrategy
 	@Inject 
 	protected SerializationAdapter serializationAdapter;
 	
+	@Inject
+	protected Provider<SerializationAdapter> serializationAdapterProvider;
+	
 	@Inject
 	protected CoerciveSubtypeSolver coerciveSubtypeSolver;
 	
@@ -80,41 +89,79 @@ class BaseResourceDescriptionStrategy extends DefaultResourceDescriptionStrategy
 		userData.put(EXPORTED, Boolean.toString(eObject.isExported));
 		
 		if (eObject.eContainer() === null) {
-			// constraint generation assumes a valid model. In an invalid model things might be null we don't check
-			// for example if a user writes &&x the parser constructs:
-			// BinaryExpression(DOUBLE_AND, null, x)
-			// and we don't handle that. 
-			val resource = eObject.eResource;
-			if(resource instanceof ResourceImpl) {
-				val errors = resource.errors;
-				if(!errors.nullOrEmpty) {
-					return;
-				}
+			val precomputed = eObject.eAdapters.filter(PrecomputedConstraints).head;
+			if(precomputed !== null) {
+				eObject.eAdapters.remove(precomputed);
+				userData.put(CONSTRAINTS, precomputed.json);
+				return;
 			}
-			BaseUtils.ignoreChange(eObject, [
-				eObject.eAllContents
-					.filter(GeneratedObject)
-					.forEach[
-						it.generateMembers()
-					]
-			]);
 			// we're at the top level element - let's compute constraints and put that in a new EObjectDescription
-			constraintFactory.getTypeRegistry().setIsLinking(true);
-			try {
-				val constraints = constraintFactory.create(eObject);
-				constraints.typeTable.entrySet.force.forEach[
-					if(!it.value.origin.isExported) {
-						constraints.typeTable.remove(it.key);
-					}
-				]
-				val String json = serializationAdapter.toJSON(constraints);
-				userData.put(CONSTRAINTS, json);		
+			val json = computeConstraints(eObject, serializationAdapter);
+			if(json !== null) {
+				userData.put(CONSTRAINTS, json);
+			}
+		}
+	}
+	
+	/**
+	 * Computes and serializes the constraints of the top level objects of resources in parallel on pool.
+	 * Descriptions created for these objects afterwards use the result instead of computing constraints one resource at a time.
+	 * 
+	 * Resources need to be loaded and must not be modified until their descriptions were created.
+	 * Tasks resolve lazy cross references of resources in the same resource set concurrently, which Xtext doesn't guarantee to be safe,
+	 * so clients should only do this when explicitly asked to.
+	 */
+	def void precomputeConstraints(Iterable<? extends Resource> resources, ForkJoinPool pool) {
+		val roots = resources.flatMap[contents].filter[!eAdapters.exists[it instanceof PrecomputedConstraints]].toList;
+		val Runnable task = [|
+			roots.parallelStream.forEach[root |
+				// serialization adapters aren't thread safe, so each task uses its own
+				val json = computeConstraints(root, serializationAdapterProvider.get());
+				if(json !== null) {
+					root.eAdapters.add(new PrecomputedConstraints(json));
+				}
+			]
+		];
+		pool.submit(task).get();
+	}
+	
+	/**
+	 * @returns the serialized constraints of top level element eObject or null if they can't be computed.
+	 */
+	protected def String computeConstraints(EObject eObject, SerializationAdapter serializationAdapter) {
+		// constraint generation assumes a valid model. In an invalid model things might be null we don't check
+		// for example if a user writes &&x the parser constructs:
+		// BinaryExpression(DOUBLE_AND, null, x)
+		// and we don't handle that. 
+		val resource = eObject.eResource;
+		if(resource instanceof ResourceImpl) {
+			val errors = resource.errors;
+			if(!errors.nullOrEmpty) {
+				return null;
 			}
-			catch(Exception e) {
-				// something went wrong during constraint generation 
-				// => probably dirty model. just return here.
-				return; 
-			}	
+		}
+		BaseUtils.ignoreChange(eObject, [
+			eObject.eAllContents
+				.filter(GeneratedObject)
+				.forEach[
+					it.generateMembers()
+				]
+		]);
+		// linking is thread confined, so this only affects constraint generation on this thread
+		constraintFactory.getTypeRegistry().setIsLinking(true);
+		try {
+			val constraints = constraintFactory.create(eObject);
+			constraints.typeTable.entrySet.force.forEach[
+				if(!it.value.origin.isExported) {
+					constraints.typeTable.remove(it.key);
+				}
+			]
+			return serializationAdapter.toJSON(constraints);
+		}
+		catch(Exception e) {
+			// something went wrong during constraint generation 
+			// => probably dirty model. just return here.
+			return null; 
 		}
 	}
 
@@ -166,4 +213,13 @@ class BaseResourceDescriptionStrategy extends DefaultResourceDescriptionStrategy
 	def protected boolean shouldCreateDescription(EObject object) {
 		return !(object instanceof StructuralParameter)
 	}
+	
+	/**
+	 * Holds the serialized constraints computed for a top level element by {@link BaseResourceDescriptionStrategy#precomputeConstraints}.
+	 */
+	@FinalFieldsConstructor
+	@Accessors
+	static class PrecomputedConstraints extends AdapterImpl {
+		val String json;
+	}
 }
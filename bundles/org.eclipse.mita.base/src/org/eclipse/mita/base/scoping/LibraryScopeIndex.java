@@ -0,0 +1,176 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.base.scoping;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.scoping.IScope;
+import org.eclipse.xtext.scoping.impl.AbstractScope;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimaps;
+
+/**
+ * The exported objects of all libraries of a resource set, indexed by EClass and qualified name.
+ * It is attached to the resource set and shared by all of its resources.
+ *
+ * Each version of the index is stamped with the exported objects of each library,
+ * which {@link TypesGlobalScopeProvider} caches per library resource until that resource changes.
+ * The libraries themselves are only asked for again once resources were added to or removed from the resource set.
+ */
+public class LibraryScopeIndex extends AdapterImpl {
+
+	public static LibraryScopeIndex findOrCreate(ResourceSet resourceSet) {
+		synchronized(resourceSet.eAdapters()) {
+			LibraryScopeIndex index = (LibraryScopeIndex) EcoreUtil.getExistingAdapter(resourceSet, LibraryScopeIndex.class);
+			if(index == null) {
+				index = new LibraryScopeIndex();
+				resourceSet.eAdapters().add(index);
+			}
+			return index;
+		}
+	}
+
+	private volatile boolean resourcesChanged = true;
+
+	private volatile List<URI> libraries = Collections.emptyList();
+
+	private volatile Version current;
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == LibraryScopeIndex.class;
+	}
+
+	@Override
+	public void notifyChanged(Notification msg) {
+		if(msg.getFeatureID(ResourceSet.class) == ResourceSet.RESOURCE_SET__RESOURCES) {
+			resourcesChanged = true;
+		}
+	}
+
+	/**
+	 * @return true exactly once after resources were added to or removed from the resource set, so the libraries have to be asked for again
+	 */
+	public boolean pollResourcesChanged() {
+		boolean result = resourcesChanged;
+		resourcesChanged = false;
+		return result;
+	}
+
+	public List<URI> getLibraries() {
+		return libraries;
+	}
+
+	public void setLibraries(List<URI> libraries) {
+		this.libraries = libraries;
+	}
+
+	/**
+	 * @param exportedObjects the exported objects of each library
+	 * @return the current version if it was built from exactly these lists, otherwise a new version
+	 */
+	public Version getVersion(List<List<IEObjectDescription>> exportedObjects) {
+		Version result = current;
+		if(result == null || !result.isStampedWith(exportedObjects)) {
+			result = new Version(exportedObjects);
+			current = result;
+		}
+		return result;
+	}
+
+	public static class Version {
+		protected final List<List<IEObjectDescription>> stamp;
+		protected final ConcurrentMap<EClass, TypeIndex> byType = new ConcurrentHashMap<>();
+
+		protected Version(List<List<IEObjectDescription>> stamp) {
+			this.stamp = stamp;
+		}
+
+		protected boolean isStampedWith(List<List<IEObjectDescription>> exportedObjects) {
+			if(stamp.size() != exportedObjects.size()) {
+				return false;
+			}
+			for(int i = 0; i < stamp.size(); i++) {
+				if(stamp.get(i) != exportedObjects.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return a scope of all library objects of the given type, shadowing parent
+		 */
+		public IScope getScope(IScope parent, EClass type, boolean ignoreCase) {
+			return new LibraryScope(parent, byType.computeIfAbsent(type, this::createTypeIndex), ignoreCase);
+		}
+
+		protected TypeIndex createTypeIndex(EClass type) {
+			ImmutableList.Builder<IEObjectDescription> result = ImmutableList.builder();
+			for(List<IEObjectDescription> descriptions : stamp) {
+				for(IEObjectDescription description : descriptions) {
+					if(EcoreUtil2.isAssignableFrom(type, description.getEClass())) {
+						result.add(description);
+					}
+				}
+			}
+			return new TypeIndex(result.build());
+		}
+	}
+
+	protected static class TypeIndex {
+		protected final ImmutableList<IEObjectDescription> all;
+		protected final ImmutableListMultimap<QualifiedName, IEObjectDescription> byName;
+		protected final ImmutableListMultimap<QualifiedName, IEObjectDescription> byLowerCaseName;
+
+		protected TypeIndex(ImmutableList<IEObjectDescription> all) {
+			this.all = all;
+			this.byName = Multimaps.index(all, IEObjectDescription::getName);
+			this.byLowerCaseName = Multimaps.index(all, it -> it.getName().toLowerCase());
+		}
+	}
+
+	protected static class LibraryScope extends AbstractScope {
+		protected final TypeIndex index;
+
+		protected LibraryScope(IScope parent, TypeIndex index, boolean ignoreCase) {
+			super(parent, ignoreCase);
+			this.index = index;
+		}
+
+		@Override
+		protected Iterable<IEObjectDescription> getAllLocalElements() {
+			return index.all;
+		}
+
+		@Override
+		protected Iterable<IEObjectDescription> getLocalElementsByName(QualifiedName name) {
+			return isIgnoreCase() ? index.byLowerCaseName.get(name.toLowerCase()) : index.byName.get(name);
+		}
+	}
+}
@@ -21,21 +21,20 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.mita.base.types.TypesPackage;
 import org.eclipse.mita.base.types.typesystem.ITypeSystem;
 import org.eclipse.xtext.naming.IQualifiedNameProvider;
 import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
-import org.eclipse.xtext.resource.impl.EObjectDescriptionLookUp;
 import org.eclipse.xtext.scoping.IScope;
 import org.eclipse.xtext.scoping.impl.DefaultGlobalScopeProvider;
 import org.eclipse.xtext.scoping.impl.FilteringScope;
-import org.eclipse.xtext.scoping.impl.SelectableBasedScope;
-import org.eclipse.xtext.scoping.impl.SimpleScope;
+import org.eclipse.xtext.util.IResourceScopeCache;
 
 import com.google.common.base.Predicate;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 
 public class TypesGlobalScopeProvider extends DefaultGlobalScopeProvider {
@@ -52,6 +51,11 @@ public class TypesGlobalScopeProvider extends DefaultGlobalScopeProvider {
 	@Inject
 	private IResourceServiceProvider.Registry serviceProviderRegistry;
 
+	@Inject
+	private IResourceScopeCache cache;
+
+	private static final String LIBRARY_EXPORTED_OBJECTS = "LIBRARY_EXPORTED_OBJECTS";
+
 	public IScope getScope(Resource context, EReference reference, Predicate<IEObjectDescription> filter) {
 		IScope superScope = super.getScope(context, reference, filter);
 		superScope = addLibraryScope(context, reference, superScope);
@@ -100,22 +104,42 @@ public class TypesGlobalScopeProvider extends DefaultGlobalScopeProvider {
 		});
 	}
 
-	private SimpleScope addLibraryScope(Resource context, EReference reference, IScope superScope) {
-		return new SimpleScope(superScope, getLibraryScope(context, reference).getAllElements());
+	private IScope addLibraryScope(Resource context, EReference reference, IScope superScope) {
+		return getLibraryIndex(context).getScope(superScope, reference.getEReferenceType(), isIgnoreCase(reference));
 	}
 
 	protected IScope getLibraryScope(Resource context, EReference reference) {
-		Iterable<URI> defaultLibraries = Iterables.<URI>concat(libraryProvider.getLibraries());
-		List<IEObjectDescription> descriptions = new ArrayList<>();
-		for(URI uri : defaultLibraries) {
-			// we have previously loaded all libraries into the resource set
-			Resource resource = context.getResourceSet().getResource(uri, false);
+		return getLibraryIndex(context).getScope(IScope.NULLSCOPE, reference.getEReferenceType(), isIgnoreCase(reference));
+	}
+
+	/**
+	 * Returns the library index of the resource set of context, building a new version of it if the libraries changed.
+	 * Apart from checking whether they changed this doesn't depend on the size of the libraries.
+	 */
+	protected LibraryScopeIndex.Version getLibraryIndex(Resource context) {
+		ResourceSet resourceSet = context.getResourceSet();
+		LibraryScopeIndex index = LibraryScopeIndex.findOrCreate(resourceSet);
+		if(index.pollResourcesChanged()) {
+			index.setLibraries(ImmutableList.copyOf(libraryProvider.getLibraries()));
+		}
+		List<List<IEObjectDescription>> exportedObjects = new ArrayList<>();
+		for(URI uri : index.getLibraries()) {
+			Resource resource = getLibraryResource(resourceSet, uri);
 			if(resource != null) {
-				IResourceDescription description = serviceProviderRegistry.getResourceServiceProvider(uri).getResourceDescriptionManager().getResourceDescription(resource);
-				Iterables.addAll(descriptions, description.getExportedObjects());				
+				exportedObjects.add(cache.get(LIBRARY_EXPORTED_OBJECTS, resource, () -> ImmutableList.copyOf(getExportedObjects(resource))));
 			}
 		}
-		return SelectableBasedScope.createScope(IScope.NULLSCOPE, new EObjectDescriptionLookUp(descriptions), reference.getEReferenceType(), isIgnoreCase(reference));
+		return index.getVersion(exportedObjects);
+	}
+
+	protected Resource getLibraryResource(ResourceSet resourceSet, URI uri) {
+		// we have previously loaded all libraries into the resource set
+		return resourceSet.getResource(uri, false);
+	}
+
+	protected Iterable<IEObjectDescription> getExportedObjects(Resource library) {
+		IResourceDescription description = serviceProviderRegistry.getResourceServiceProvider(library.getURI()).getResourceDescriptionManager().getResourceDescription(library);
+		return description.getExportedObjects();
 	}
 
 	protected IScope addTypeSystemScope(Resource context, EReference reference, IScope superScope) {
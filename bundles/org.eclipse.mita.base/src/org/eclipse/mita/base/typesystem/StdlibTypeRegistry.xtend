@@ -65,17 +65,22 @@ class StdlibTypeRegistry {
 	
 	@Inject IScopeProvider scopeProvider;
 	
-	protected boolean isLinking = false;
+	// thread confined, since constraints of different resources may be computed concurrently (see BaseResourceDescriptionStrategy#precomputeConstraints)
+	protected final ThreadLocal<Boolean> linking = ThreadLocal.withInitial[false];
 	protected OnChangeEvictingCache cache = new OnChangeEvictingCache(); 
 	
 	
 	
 	def setIsLinking(boolean isLinking) {
-		this.isLinking = isLinking;
+		this.linking.set(isLinking);
+	}
+	
+	def boolean getIsLinking() {
+		return linking.get();
 	}
 	 
 	def getTypeModelObject(EObject context, QualifiedName qn) {
-		if(isLinking) {
+		if(linking.get()) {
 			return null;
 		}
 		val obj = cache.get(qn, context.eResource, [|
@@ -85,7 +90,7 @@ class StdlibTypeRegistry {
 		return obj;
 	}
 	def getTypeModelObjectProxy(ConstraintSystem system, EObject context, QualifiedName qn) {
-		if(isLinking) {
+		if(linking.get()) {
 			return system.getTypeVariableProxy(context, TypesPackage.eINSTANCE.typeReferenceSpecifier_Type, qn);
 		}
 		return system.getTypeVariable(getTypeModelObject(context, qn));
@@ -96,7 +101,7 @@ class StdlibTypeRegistry {
 	}
 	
 	def getModelObjects(ConstraintSystem system, EObject context, QualifiedName qn, EReference ref, boolean proxyIsLinking) {
-		if(isLinking) {
+		if(linking.get()) {
 			return #[system.getTypeVariableProxy(context, ref, qn, proxyIsLinking)];
 		}
 		val scope = scopeProvider.getScope(context, ref);
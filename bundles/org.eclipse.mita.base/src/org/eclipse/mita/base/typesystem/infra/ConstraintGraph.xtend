@@ -74,15 +74,15 @@ class ConstraintGraph extends Graph<AbstractType> {
 	def getTypeVariables() {
 		return nodeIndex.filter[k, v| v instanceof TypeVariable].keySet;
 	}
-	def getBaseTypePredecessors(Integer t) {
+	def getBaseTypePredecessors(int t) {
 		return getPredecessors(t).filter[!(it instanceof TypeVariable)].force
 	}
 
-	def getBaseTypeSuccecessors(Integer t) {
+	def getBaseTypeSuccecessors(int t) {
 		return getSuccessors(t).filter[!(it instanceof TypeVariable)].force
 	}
 	
-	override nodeToString(Integer i) {
+	override nodeToString(int i) {
 		val t = nodeIndex.get(i);
 		if(t?.origin === null) {
 			return super.nodeToString(i)	
@@ -96,7 +96,7 @@ class ConstraintGraph extends Graph<AbstractType> {
 		return '''«t.origin»(«t», «i»)'''
 	}
 	
-	override addEdge(Integer fromIndex, Integer toIndex) {
+	override addEdge(int fromIndex, int toIndex) {
 		if(fromIndex == toIndex) {
 			return null;
 		}
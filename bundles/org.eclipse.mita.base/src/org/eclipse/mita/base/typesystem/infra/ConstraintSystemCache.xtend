@@ -0,0 +1,104 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.base.typesystem.infra
+
+import java.util.LinkedHashMap
+import java.util.Map
+import org.eclipse.emf.common.notify.impl.AdapterImpl
+import org.eclipse.emf.common.util.URI
+import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.mita.base.typesystem.solver.ConstraintSystem
+import org.eclipse.xtend.lib.annotations.Accessors
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+/**
+ * Caches deserialized constraint systems of a resource set, one per resource.
+ * Cached systems aren't offset, so they can be reused wherever their resource ends up among the systems of a solve:
+ * callers apply {@link ConstraintSystem#modifyNames(int)}, which copies the system, to each system they get.
+ * Entries remember the serialized system they were deserialized from, so a changed resource simply misses.
+ * Resource descriptions keep their serialized systems, so a hit usually gets the very same string and doesn't need to compare contents.
+ *
+ * Only use this for resources which aren't edited, like the stdlib and platforms:
+ * deserialized systems reference the EObjects of their resource, which become stale when the resource is reparsed.
+ */
+class ConstraintSystemCache extends AdapterImpl {
+	public static final int DEFAULT_MAX_SIZE = 128;
+
+	@Accessors(PUBLIC_GETTER)
+	protected long hits = 0;
+	@Accessors(PUBLIC_GETTER)
+	protected long misses = 0;
+	@Accessors(PUBLIC_GETTER)
+	protected long evictions = 0;
+
+	protected final int maxSize;
+	// access ordered, so the first entry is the least recently used one
+	protected final Map<URI, CachedSystem> entries = new LinkedHashMap(16, 0.75f, true);
+
+	new(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	static def ConstraintSystemCache get(ResourceSet resourceSet) {
+		synchronized(resourceSet) {
+			return resourceSet.eAdapters.filter(ConstraintSystemCache).head ?: (
+				new ConstraintSystemCache(DEFAULT_MAX_SIZE) => [resourceSet.eAdapters.add(it)]
+			);
+		}
+	}
+
+	/**
+	 * Don't modify the returned system, it is shared by all callers.
+	 *
+	 * @returns the cached system of resourceUri if it was deserialized from serialized or, if there is none, the one computed by factory.
+	 */
+	synchronized def ConstraintSystem getOrCreate(ResourceSet resourceSet, URI resourceUri, String serialized, () => ConstraintSystem factory) {
+		val cached = entries.get(resourceUri);
+		// the resource might have been unloaded or replaced since, then the cached system references stale objects
+		if(cached !== null && cached.serialized == serialized && cached.resource.isLoaded && resourceSet.getResource(resourceUri, false) === cached.resource) {
+			hits++;
+			return cached.system;
+		}
+		misses++;
+		val system = factory.apply();
+		val resource = resourceSet.getResource(resourceUri, false);
+		if(system !== null && resource !== null) {
+			entries.put(resourceUri, new CachedSystem(resource, serialized, system));
+			if(entries.size > maxSize) {
+				val eldest = entries.keySet.iterator;
+				eldest.next;
+				eldest.remove;
+				evictions++;
+			}
+		}
+		return system;
+	}
+
+	synchronized def void clear() {
+		entries.clear();
+	}
+
+	override toString() {
+		return '''ConstraintSystemCache: «entries.size»/«maxSize» entries, «hits» hits, «misses» misses, «evictions» evictions''';
+	}
+
+	@FinalFieldsConstructor
+	@Accessors
+	protected static class CachedSystem {
+		val Resource resource;
+		val String serialized;
+		val ConstraintSystem system;
+	}
+}
@@ -14,6 +14,13 @@
 package org.eclipse.mita.base.typesystem.infra
 
 import com.google.common.base.Optional
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
+import it.unimi.dsi.fastutil.ints.IntAVLTreeSet
+import it.unimi.dsi.fastutil.ints.IntArrayList
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet
+import it.unimi.dsi.fastutil.ints.IntSet
 import java.util.ArrayList
 import java.util.HashMap
 import java.util.HashSet
@@ -27,37 +34,87 @@ import static extension org.eclipse.mita.base.util.BaseUtils.force
 import static extension org.eclipse.mita.base.util.BaseUtils.init
 import static extension org.eclipse.mita.base.util.BaseUtils.zip
 
+/**
+ * A directed graph of T with nodes identified by int.
+ * 
+ * Adjacency sets are shared between a graph and its copies (see {@link #copyTo} and {@link #clone}) until either of them modifies one.
+ * Therefore adjacency sets returned by {@link #getOutgoing} and {@link #getIncoming} must not be modified.
+ * Sets in {@link #getReverseMap} are replaced instead of modified, so they can be shared as well.
+ * 
+ * Nodes reachable from a node are memoized by {@link #getClosure} until the edges of this graph change.
+ * Edges are only changed through methods of this graph, so adjacency maps can't be set from outside.
+ */
 @Accessors
 class Graph<T> implements Cloneable {
-	protected Map<Integer, Set<Integer>> outgoing = new HashMap();
-	protected Map<Integer, Set<Integer>> incoming = new HashMap();
+	@Accessors(PUBLIC_GETTER)
+	protected Int2ObjectMap<IntSet> outgoing = new Int2ObjectLinkedOpenHashMap();
+	@Accessors(PUBLIC_GETTER)
+	protected Int2ObjectMap<IntSet> incoming = new Int2ObjectLinkedOpenHashMap();
 	
-	protected Map<Integer, T> nodeIndex = new HashMap();
-	protected Map<T, Set<Integer>> reverseMap = new HashMap();
+	protected Int2ObjectMap<T> nodeIndex = new Int2ObjectLinkedOpenHashMap();
+	protected Map<T, IntSet> reverseMap = new HashMap();
 	protected int nextNodeInt = 0;
 	
+	// nodes whose adjacency sets aren't shared with a copy of this graph
+	@Accessors(NONE)
+	protected IntSet ownedOutgoing = new IntOpenHashSet();
+	@Accessors(NONE)
+	protected IntSet ownedIncoming = new IntOpenHashSet();
+	
+	// nodes reachable from a node by outgoing and by incoming edges, cleared whenever an edge changes
+	@Accessors(NONE)
+	protected Int2ObjectMap<int[]> outgoingClosures = new Int2ObjectOpenHashMap();
+	@Accessors(NONE)
+	protected Int2ObjectMap<int[]> incomingClosures = new Int2ObjectOpenHashMap();
+	
 	def copyTo(Graph<T> other) {
-		other.outgoing =   new HashMap(outgoing);
-		other.incoming =   new HashMap(incoming);
-		other.nodeIndex =  new HashMap(nodeIndex);
-		other.reverseMap = new HashMap(reverseMap);	
+		other.outgoing =   new Int2ObjectLinkedOpenHashMap(outgoing);
+		other.incoming =   new Int2ObjectLinkedOpenHashMap(incoming);
+		other.nodeIndex =  new Int2ObjectLinkedOpenHashMap(nodeIndex);
+		other.reverseMap = new HashMap(reverseMap);
+		other.nextNodeInt = nextNodeInt;
+		other.ownedOutgoing = new IntOpenHashSet();
+		other.ownedIncoming = new IntOpenHashSet();
+		other.clearClosures();
+		ownedOutgoing.clear();
+		ownedIncoming.clear();
 	}
 	
 	override clone() {
 		val c = super.clone() as Graph<T>;
-		c.outgoing = new HashMap(c.outgoing);
-		c.incoming = new HashMap(c.incoming);
-		c.nodeIndex = new HashMap(c.nodeIndex);
-		c.reverseMap = new HashMap(c.reverseMap);		
+		c.outgoing = new Int2ObjectLinkedOpenHashMap(c.outgoing);
+		c.incoming = new Int2ObjectLinkedOpenHashMap(c.incoming);
+		c.nodeIndex = new Int2ObjectLinkedOpenHashMap(c.nodeIndex);
+		c.reverseMap = new HashMap(c.reverseMap);
+		c.ownedOutgoing = new IntOpenHashSet();
+		c.ownedIncoming = new IntOpenHashSet();
+		c.outgoingClosures = new Int2ObjectOpenHashMap();
+		c.incomingClosures = new Int2ObjectOpenHashMap();
+		ownedOutgoing.clear();
+		ownedIncoming.clear();
 		
 		return c;
 	}
 	
+	/**
+	 * @returns the adjacency set of idx in adjacency, copied first if it is shared with another graph.
+	 */
+	protected def IntSet mutableAdjacency(Int2ObjectMap<IntSet> adjacency, IntSet owned, int idx) {
+		clearClosures();
+		val adjacent = adjacency.get(idx);
+		if(adjacent !== null && owned.contains(idx)) {
+			return adjacent;
+		}
+		val result = if(adjacent === null) new IntAVLTreeSet() else new IntAVLTreeSet(adjacent);
+		adjacency.put(idx, result);
+		owned.add(idx);
+		return result;
+	}
+	
 	def computeReverseMap() {
 		reverseMap.clear();
-		nodeIndex.entrySet.forEach[i_t |
-			reverseMap.putIfAbsent(i_t.value, new HashSet());
-			reverseMap.get(i_t.value).add(i_t.key);
+		nodeIndex.int2ObjectEntrySet.forEach[i_t |
+			reverseMap.computeIfAbsent(i_t.value, [new IntAVLTreeSet()]).add(i_t.intKey);
 		]
 	}
 	
@@ -65,37 +122,36 @@ class Graph<T> implements Cloneable {
 		return nodeIndex.values;
 	}
 	
-	def addNode(T t) {
+	def int addNode(T t) {
 		if(t === null) {
 			throw new NullPointerException;
 		}
-		if(!reverseMap.containsKey(t)) {
-			val idx = nextNodeInt++;
-			reverseMap.put(t, new HashSet(#[idx]))
+		var idxs = reverseMap.get(t);
+		if(idxs === null) {
+			idxs = new IntAVLTreeSet();
+			idxs.add(nextNodeInt++);
+			reverseMap.put(t, idxs);
 		}
-		val idx = reverseMap.get(t).head
+		val idx = idxs.iterator.nextInt;
 		
 		if(!nodeIndex.containsKey(idx)) {
 			nodeIndex.put(idx, t);
 		}
 		
 		if(!outgoing.containsKey(idx)) {
-			outgoing.put(idx, new HashSet<Integer>());
+			outgoing.put(idx, new IntAVLTreeSet());
+			ownedOutgoing.add(idx);
 		}
 		if(!incoming.containsKey(idx)) {
-			incoming.put(idx, new HashSet<Integer>());
+			incoming.put(idx, new IntAVLTreeSet());
+			ownedIncoming.add(idx);
 		}
 		return idx;
 	}
 	
-	def Pair<Integer, Integer> addEdge(Integer fromIndex, Integer toIndex) {
-		val outgoingAdjacencyList = outgoing.get(fromIndex) ?: new HashSet<Integer>();
-		outgoingAdjacencyList.add(toIndex);
-		outgoing.put(fromIndex, outgoingAdjacencyList);
-		
-		val incomingAdjacencyList = incoming.get(toIndex) ?: new HashSet<Integer>();
-		incomingAdjacencyList.add(fromIndex);
-		incoming.put(toIndex, incomingAdjacencyList);
+	def Pair<Integer, Integer> addEdge(int fromIndex, int toIndex) {
+		mutableAdjacency(outgoing, ownedOutgoing, fromIndex).add(toIndex);
+		mutableAdjacency(incoming, ownedIncoming, toIndex).add(fromIndex);
 		return fromIndex -> toIndex;
 	}
 	
@@ -146,15 +202,30 @@ class Graph<T> implements Cloneable {
 		return Optional.absent;
 	} 
 	
-	def removeNode(Integer nodeIdx) {
-		val preds = incoming.get(nodeIdx) ?: #[];
-		val succs = outgoing.get(nodeIdx) ?: #[];
-		preds.forEach[outgoing.get(it).remove(nodeIdx)];
-		succs.forEach[incoming.get(it).remove(nodeIdx)];
+	def removeNode(int nodeIdx) {
+		val preds = incoming.get(nodeIdx) ?: new IntAVLTreeSet();
+		val succs = outgoing.get(nodeIdx) ?: new IntAVLTreeSet();
+		val predIt = preds.iterator;
+		while(predIt.hasNext) {
+			mutableAdjacency(outgoing, ownedOutgoing, predIt.nextInt).remove(nodeIdx);
+		}
+		val succIt = succs.iterator;
+		while(succIt.hasNext) {
+			mutableAdjacency(incoming, ownedIncoming, succIt.nextInt).remove(nodeIdx);
+		}
+		clearClosures();
 		incoming.remove(nodeIdx);
 		outgoing.remove(nodeIdx);
+		ownedIncoming.remove(nodeIdx);
+		ownedOutgoing.remove(nodeIdx);
 
-		reverseMap.get(nodeIndex.get(nodeIdx)).remove(nodeIdx);
+		val t = nodeIndex.get(nodeIdx);
+		val idxs = reverseMap.get(t);
+		if(idxs !== null) {
+			val remainingIdxs = new IntAVLTreeSet(idxs);
+			remainingIdxs.remove(nodeIdx);
+			reverseMap.put(t, remainingIdxs);
+		}
 		nodeIndex.remove(nodeIdx);
 	}
 		
@@ -184,29 +255,75 @@ class Graph<T> implements Cloneable {
 		return g;
 	}
 	
-	def getPredecessors(Integer t) {
-		return incoming.walk(new HashSet(), t) [i, v | v];
+	def getPredecessors(int t) {
+		return incoming.walk(new IntOpenHashSet(), t) [i, v | v];
 	}
 	
-	def getSuccessors(Integer t) {
-		return outgoing.walk(new HashSet(), t) [i, v | v];
+	def getSuccessors(int t) {
+		return outgoing.walk(new IntOpenHashSet(), t) [i, v | v];
+	}
+	
+	
+	/**
+	 * @returns all nodes reachable from idx in adjacency (either outgoing or incoming) in the order of {@link #walk}.
+	 * The result is memoized until an edge of this graph changes and must not be modified.
+	 */
+	def int[] getClosure(Int2ObjectMap<IntSet> adjacency, int idx) {
+		val closures = if(adjacency === outgoing) {
+			outgoingClosures
+		} else if(adjacency === incoming) {
+			incomingClosures
+		} else {
+			throw new IllegalArgumentException("Not an adjacency map of this graph");
+		}
+		var closure = closures.get(idx);
+		if(closure === null) {
+			val reachable = adjacency.walk(new IntOpenHashSet(), idx, [i, v | i]);
+			closure = new IntArrayList(reachable.iterator).toIntArray;
+			closures.put(idx, closure);
+		}
+		return closure;
 	}
 	
+	protected def void clearClosures() {
+		if(!outgoingClosures.empty) {
+			outgoingClosures.clear();
+		}
+		if(!incomingClosures.empty) {
+			incomingClosures.clear();
+		}
+	}
 	
-	public def <S> Iterable<S> walk(Map<Integer, Set<Integer>> g, T start, (Integer, T) => S visitor) {
-		return reverseMap.get(start).flatMap[
-			g.walk(new HashSet(), it, visitor)
-		].force
+	public def <S> Iterable<S> walk(Int2ObjectMap<IntSet> g, T start, (Integer, T) => S visitor) {
+		val result = new ArrayList<S>();
+		val startIt = (reverseMap.get(start) ?: new IntAVLTreeSet()).iterator;
+		while(startIt.hasNext) {
+			g.walk(new IntOpenHashSet(), startIt.nextInt, visitor, result);
+		}
+		return result;
 	}
-	public def <S> Iterable<S> walk(Map<Integer, Set<Integer>> g, Set<Integer> visited, Integer idx, (Integer, T) => S visitor) {
-		if(visited.contains(idx)) {
-			return #[];
+	public def <S> Iterable<S> walk(Int2ObjectMap<IntSet> g, IntSet visited, int idx, (Integer, T) => S visitor) {
+		val result = new ArrayList<S>();
+		g.walk(visited, idx, visitor, result);
+		return result;
+	}
+	/**
+	 * Visits all nodes reachable from idx depth first, each node after the nodes reachable from it.
+	 */
+	protected def <S> void walk(Int2ObjectMap<IntSet> g, IntSet visited, int idx, (Integer, T) => S visitor, List<S> result) {
+		if(!visited.add(idx)) {
+			return;
+		}
+		val adjacent = g.get(idx);
+		if(adjacent === null) {
+			return;
+		}
+		val adjacentIt = adjacent.iterator;
+		while(adjacentIt.hasNext) {
+			val next = adjacentIt.nextInt;
+			g.walk(visited, next, visitor, result);
+			result.add(visitor.apply(next, nodeIndex.get(next)));
 		}
-		visited.add(idx);
-		return (g.get(idx) ?: #[]).flatMap[
-			val node = nodeIndex.get(it);
-			g.walk(visited, it, visitor) + #[ visitor.apply(it, node) ]
-		].force;
 	}
 	
 	def replace(T from, T with) {
@@ -225,12 +342,12 @@ class Graph<T> implements Cloneable {
 	/**
 	 * @returns A pair of iterables of edges: outgoing and incoming
 	 */
-	def Pair<Iterable<Pair<Integer, Integer>>, Iterable<Pair<Integer, Integer>>> getEdges(Integer idx) {
+	def Pair<Iterable<Pair<Integer, Integer>>, Iterable<Pair<Integer, Integer>>> getEdges(int idx) {
 		return outgoing.get(idx).map[ idx -> it ].force -> 
 			   incoming.get(idx).map[ it -> idx ].force;
 	}
 	
-	def nodeToString(Integer i) {
+	def nodeToString(int i) {
 		val t = nodeIndex.get(i);
 		return '''«t»(«i»)''';
 	}
@@ -247,14 +364,17 @@ class Graph<T> implements Cloneable {
 		}
 		'''
 	}
-	def Iterable<Integer> looselyConnectedComponent(Integer integer) {
-		return looselyConnectedComponentWalker(new HashSet(), integer);
-	}
-	protected def Set<Integer> looselyConnectedComponentWalker(Set<Integer> visited, Integer node) {
-		if(visited.contains(node)) {
-			return visited;
+	def Iterable<Integer> looselyConnectedComponent(int idx) {
+		val visited = new IntOpenHashSet();
+		val todo = new IntArrayList();
+		todo.add(idx);
+		while(!todo.empty) {
+			val node = todo.removeInt(todo.size - 1);
+			if(visited.add(node)) {
+				todo.addAll(outgoing.get(node) ?: new IntAVLTreeSet());
+				todo.addAll(incoming.get(node) ?: new IntAVLTreeSet());
+			}
 		}
-		visited.add(node);
-		return outgoing.get(node).fold(incoming.get(node).fold(visited, [v, n | looselyConnectedComponentWalker(v, n)]), [v, n | looselyConnectedComponentWalker(v, n)]);
+		return visited;
 	}
-}
\ No newline at end of file
+}
@@ -19,6 +19,7 @@ import com.google.inject.name.Named
 import java.io.IOException
 import java.io.InputStream
 import java.util.ArrayList
+import java.util.HashMap
 import java.util.List
 import java.util.Map
 import org.apache.log4j.Logger
@@ -31,6 +32,7 @@ import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.impl.ResourceImpl
 import org.eclipse.emf.ecore.util.EcoreUtil
 import org.eclipse.mita.base.scoping.BaseResourceDescriptionStrategy
+import org.eclipse.mita.base.scoping.ILibraryProvider
 import org.eclipse.mita.base.types.GeneratedObject
 import org.eclipse.mita.base.types.NullTypeSpecifier
 import org.eclipse.mita.base.types.PackageAssociation
@@ -45,10 +47,14 @@ import org.eclipse.mita.base.typesystem.types.BottomType
 import org.eclipse.mita.base.typesystem.types.TypeHole
 import org.eclipse.mita.base.util.BaseUtils
 import org.eclipse.mita.base.util.DebugTimer
+import org.eclipse.mita.base.util.TypingMetrics
 import org.eclipse.xtend.lib.annotations.Accessors
+import org.eclipse.xtend.lib.annotations.EqualsHashCode
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import org.eclipse.xtext.diagnostics.Severity
 import org.eclipse.xtext.linking.lazy.LazyLinkingResource
 import org.eclipse.xtext.nodemodel.INode
+import org.eclipse.xtext.parser.IParseResult
 import org.eclipse.xtext.resource.IContainer
 import org.eclipse.xtext.resource.IFragmentProvider
 import org.eclipse.xtext.resource.impl.ListBasedDiagnosticConsumer
@@ -67,6 +73,11 @@ class MitaBaseResource extends LazyLinkingResource {
 	protected ConstraintSolution latestSolution;
 	@Accessors
 	protected MitaCancelInidicator cancelIndicator;
+	/**
+	 * The inputs {@link #latestSolution} was computed from. 
+	 * As long as these don't change, solving again yields the same solution, so we reuse it.
+	 */
+	protected SolveInputs latestSolveInputs;
 
 	@Inject @Named("mainSolver")
 	protected IConstraintSolver constraintSolver;
@@ -82,6 +93,9 @@ class MitaBaseResource extends LazyLinkingResource {
 
 	@Inject
 	protected SerializationAdapter constraintSerializationAdapter;
+	
+	@Inject
+	protected ILibraryProvider libraryProvider;
 
 	@Inject
 	protected IScopeProvider scopeProvider;
@@ -173,12 +187,27 @@ class MitaBaseResource extends LazyLinkingResource {
 	}
 
 	static class MitaCancelInidicator implements CancelIndicator {
+		// set by collectAndSolveTypes when its solve is done. A solve of the same resource nested in another one, 
+		// for example by resolving a proxy during size inference, thereby cancels the outer solve, see collectAndSolveTypes.
 		public boolean canceled = false;
 
 		override isCanceled() {
 			return canceled;
 		}
 	}
+	
+	/**
+	 * Everything a solve depends on: the parse result of the solved resource (compared by identity, since every reparse creates a new one),
+	 * the serialized constraint systems of all visible resources by the URI of the object exporting them and the number of type linking errors,
+	 * which decides whether we do size inference.
+	 */
+	@FinalFieldsConstructor
+	@EqualsHashCode
+	static class SolveInputs {
+		val IParseResult parseResult;
+		val Map<org.eclipse.emf.common.util.URI, String> constraints;
+		val int typeLinkingErrorCount;
+	}
 
 	public static def resolveProxy(Resource resource, EObject obj) {
 		(if (obj !== null && obj.eIsProxy) {
@@ -208,7 +237,8 @@ class MitaBaseResource extends LazyLinkingResource {
 	}
 
 	public def collectAndSolveTypes(EObject obj) {
-		val timer = new DebugTimer(false);
+		val metrics = TypingMetrics.INSTANCE;
+		val timer = new DebugTimer(!metrics.enabled);
 		// top level element - gather constraints and solve
 		val resource = obj.eResource;
 		val resourceSet = resource.resourceSet;
@@ -243,30 +273,52 @@ class MitaBaseResource extends LazyLinkingResource {
 		val exportedObjects = (visibleContainers.flatMap [
 			it.exportedObjects
 		].force);
-		val jsons = exportedObjects.map [
+		val constraintsByOrigin = exportedObjects.map [
 			it.EObjectURI -> it.getUserData(BaseResourceDescriptionStrategy.CONSTRAINTS)
-		].filter[it.value !== null].groupBy[it.key].values.map[it.head.value]
-		.force;
+		].filter[it.value !== null].groupBy[it.key].mapValues[it.head.value];
 		timer.stop("resourceDescriptions");
+		
+		// relinking (for example when resolving a proxy) triggers a solve even if neither this resource was reparsed nor any visible constraints changed.
+		// In that case we already have the solution, types and issues attached.
+		val solveInputs = if (resource instanceof MitaBaseResource) {
+				new SolveInputs(resource.parseResult, new HashMap(constraintsByOrigin), typeLinkingErrors.size);
+			}
+		if (resource instanceof MitaBaseResource) {
+			if (resource.latestSolution !== null && solveInputs == resource.latestSolveInputs) {
+				metrics.count("resource.reusedSolutions");
+				this.errors += typeLinkingErrors;
+				resource.cancelIndicator.canceled = true;
+				return;
+			}
+		}
 		timer.start("deserialize");
-		val allConstraintSystems = jsons.map [
-			constraintSerializationAdapter.deserializeConstraintSystemFromJSON(it, [
-				val res = resource.resourceSet.getEObject(it, true);
-				return res;
-			])
-		]
-		.map[it.instanceCount -> it]
-		// calculate a running sum over all sizes
-		.fold(new ArrayList<Pair<Integer, ConstraintSystem>>() as Iterable<Pair<Integer, ConstraintSystem>> -> 0,
-			// given the old list and a running sum, and a constraint system with its size 
-			[lst_runningSize, size_constraints | 
-				// calculate the new running sum
-				val nextSum = (lst_runningSize.value + size_constraints.key);
-				// concatenate it to the input list, setting the offset to the current sum, and return both the list and the next running sum
-				return (lst_runningSize.key + #[lst_runningSize.value -> size_constraints.value]) -> nextSum
-			]
-		)
-		.key.map[it.value.modifyNames(it.key)].force;
+		// library constraints don't change between solves, so we cache their deserialized systems.
+		// Offsets are a running sum over all systems and differ between solves, so they are applied to the cached systems per solve.
+		val libraries = (libraryProvider.standardLibraries + libraryProvider.libraries).toSet;
+		val constraintSystemCache = ConstraintSystemCache.get(resourceSet);
+		val allConstraintSystems = new ArrayList<ConstraintSystem>();
+		var offset = 0;
+		for (origin_json : constraintsByOrigin.entrySet) {
+			val originResourceUri = origin_json.key.trimFragment;
+			val json = origin_json.value;
+			val currentOffset = offset;
+			val deserialize = [|
+				constraintSerializationAdapter.deserializeConstraintSystemFromJSON(json, [
+					val res = resource.resourceSet.getEObject(it, true);
+					return res;
+				])
+			];
+			val deserializedSystem = if (libraries.contains(originResourceUri)) {
+					constraintSystemCache.getOrCreate(resourceSet, originResourceUri, json, deserialize);
+				} else {
+					deserialize.apply();
+				}
+			// modifyNames copies the system, so cached systems aren't modified
+			val system = deserializedSystem.modifyNames(currentOffset);
+			allConstraintSystems += system;
+			// modifyNames keeps the instance count, so this is the size of the serialized system
+			offset += system.instanceCount;
+		}
 		timer.stop("deserialize");
 		if (cancelIndicator !== null && cancelIndicator.canceled) {
 			return;
@@ -289,6 +341,10 @@ class MitaBaseResource extends LazyLinkingResource {
 			timer.start("solve");
 			val solutionTypes = constraintSolver.solve(new ConstraintSolution(new ConstraintSystem(preparedSystem), substitutionProvider.get, newArrayList), obj);
 			timer.stop("solve");
+			// the solver returns null when a nested solve of this resource canceled it
+			if (solutionTypes === null) {
+				return;
+			}
 			timer.start("size-inference");
 			// we don't do size inference because it creates way less specific type constraints, which would remove issues we find in typing, by unassigning bottom types.
 			val solution = if(typeLinkingErrors.empty && solutionTypes.issues.forall[it.severity != Severity.ERROR]) {
@@ -300,7 +356,8 @@ class MitaBaseResource extends LazyLinkingResource {
 				solutionTypes;
 			}
 			timer.stop("size-inference");
-			println("report for:" + resource.URI.lastSegment + "\n" + timer.toString);
+			metrics.count("resource.solves");
+			metrics.addTimes("resource", timer);
 			if (solution !== null) {
 				solution.system.coercions.entrySet.filter [
 					val resourceUri = it.key.trimFragment;
@@ -368,6 +425,7 @@ class MitaBaseResource extends LazyLinkingResource {
 					]
 					
 					resource.latestSolution = solution;
+					resource.latestSolveInputs = solveInputs;
 					resource.cancelIndicator.canceled = true;
 				}
 			}
@@ -15,7 +15,6 @@ package org.eclipse.mita.base.typesystem.infra
 
 import com.google.inject.Inject
 import java.util.HashMap
-import java.util.HashSet
 import java.util.List
 import java.util.Set
 import org.eclipse.core.runtime.CoreException
@@ -115,26 +114,42 @@ class SubtypeChecker {
 	}
 	
 	def Set<AbstractType> getSuperTypes(ConstraintSystem s, AbstractType t, EObject typeResolveOrigin) {
+		val explicitSuperTypes = #[t] + getExplicitlyRelatedTypes(s, t, true);
+		val origin = typeResolveOrigin ?: t.origin;
+		val ta_optionalType = s.subtypeCheckerCache.optionalTypes.computeIfAbsent(origin.eResource, [
+			val ta_t = s.getOptionalType(origin).instantiate(s, t.origin);
+			return ta_t.key.head -> ta_t.value;
+		]);
+		val ta = ta_optionalType.key;
+		val optionalType = ta_optionalType.value;
+		return explicitSuperTypes.flatMap[s.doGetSuperTypes(it, typeResolveOrigin ?: it.origin)].flatMap[#[it, optionalType.replace(ta, it)]].toSet;
+	}
+	
+	/**
+	 * @returns all types t is explicitly a subtype of (superTypes) or which are explicitly a subtype of t (!superTypes)
+	 */
+	protected def Iterable<AbstractType> getExplicitlyRelatedTypes(ConstraintSystem s, AbstractType t, boolean superTypes) {
 		val g = s.explicitSubtypeRelations;
+		val adjacency = if(superTypes) g.outgoing else g.incoming;
 		val idxs = g.reverseMap.get(t.superTypeGraphHandle) ?: #[];
-		val explicitSuperTypes = #[t] + idxs.flatMap[
-			val keys = g.walk(g.outgoing, new HashSet(), it) [i, v | i -> v];
-			return keys.map[key_typeName | 
-				val realType = s.explicitSubtypeRelationsTypeSource.get(key_typeName.key) ?: key_typeName.value
-				if(realType.name != key_typeName.value.name) {
+		val result = newArrayList;
+		for(idx : idxs) {
+			for(i : g.getClosure(adjacency, idx)) {
+				val typeName = g.nodeIndex.get(i);
+				val realType = s.explicitSubtypeRelationsTypeSource.get(i) ?: typeName;
+				if(realType.name != typeName.name) {
 					throw new CoreException(new Status(IStatus.ERROR, "org.eclipse.mita.base", "Bad reverse lookup!"));
 				}
-				return realType;
-			];
-		].force;
-		val ta_t = s.getOptionalType(typeResolveOrigin ?: t.origin).instantiate(s, t.origin);
-		val ta = ta_t.key.head;
-		val optionalType = ta_t.value
-		return explicitSuperTypes.flatMap[s.doGetSuperTypes(it, typeResolveOrigin ?: it.origin)].flatMap[#[it, optionalType.replace(ta, it)]].toSet;
+				result += realType;
+			}
+		}
+		return result;
 	}
 	
 	dispatch def Iterable<AbstractType> doGetSuperTypes(ConstraintSystem s, IntegerType t, EObject typeResolveOrigin) {
-		return getIntegerTypes(typeResolveOrigin).filter[isSubType(s, typeResolveOrigin, t, it)].force
+		return s.subtypeCheckerCache.numericSuperTypes.computeIfAbsent((t as AbstractType) -> typeResolveOrigin.eResource, [
+			getIntegerTypes(typeResolveOrigin).filter[isSubType(s, typeResolveOrigin, t, it)].force
+		]);
 	}
 	dispatch def Iterable<AbstractType> doGetSuperTypes(ConstraintSystem s, TypeConstructorType t, EObject typeResolveOrigin) {
 		return  #[t];
@@ -143,7 +158,9 @@ class SubtypeChecker {
 		return #[t];
 	}
 	dispatch def Iterable<AbstractType> doGetSuperTypes(ConstraintSystem s, FloatingType t, EObject typeResolveOrigin) {
-		return getFloatingTypes(typeResolveOrigin).filter[isSubType(s, typeResolveOrigin, t, it)].force
+		return s.subtypeCheckerCache.numericSuperTypes.computeIfAbsent((t as AbstractType) -> typeResolveOrigin.eResource, [
+			getFloatingTypes(typeResolveOrigin).filter[isSubType(s, typeResolveOrigin, t, it)].force
+		]);
 	}
 	dispatch def Iterable<AbstractType> doGetSuperTypes(ConstraintSystem s, Object t, EObject typeResolveOrigin) {
 		return #[];
@@ -152,10 +169,14 @@ class SubtypeChecker {
 		return #[]
 	}
 	dispatch def Iterable<AbstractType> getSubTypes(ConstraintSystem s, IntegerType t, EObject typeResolveOrigin) {
-		return getIntegerTypes(typeResolveOrigin).filter[isSubType(s, typeResolveOrigin, it, t)].force
+		return s.subtypeCheckerCache.numericSubTypes.computeIfAbsent((t as AbstractType) -> typeResolveOrigin.eResource, [
+			getIntegerTypes(typeResolveOrigin).filter[isSubType(s, typeResolveOrigin, it, t)].force
+		]);
 	}
 	dispatch def Iterable<AbstractType> getSubTypes(ConstraintSystem s, FloatingType t, EObject typeResolveOrigin) {
-		return getFloatingTypes(typeResolveOrigin).filter[isSubType(s, typeResolveOrigin, it, t)].force
+		return s.subtypeCheckerCache.numericSubTypes.computeIfAbsent((t as AbstractType) -> typeResolveOrigin.eResource, [
+			getFloatingTypes(typeResolveOrigin).filter[isSubType(s, typeResolveOrigin, it, t)].force
+		]);
 	}
 	dispatch def Iterable<AbstractType> getSubTypes(ConstraintSystem s, SumType t, EObject typeResolveOrigin) {
 		return #[t] + t.typeArguments.tail.flatMap[getSubTypes(s, it, typeResolveOrigin)].force;
@@ -168,18 +189,7 @@ class SubtypeChecker {
 		}).force;
 	}
 	dispatch def Iterable<AbstractType> getSubTypes(ConstraintSystem s, AbstractType t, EObject typeResolveOrigin) {
-		val g = s.explicitSubtypeRelations;
-		val idxs = g.reverseMap.get(t.superTypeGraphHandle) ?: #[];
-		val explicitSubTypes = #[t] + idxs.flatMap[
-			val keys = g.walk(g.incoming, new HashSet(), it) [i, v | i -> v];
-			return keys.map[key_typeName | 
-				val realType = s.explicitSubtypeRelationsTypeSource.get(key_typeName.key) ?: key_typeName.value
-				if(realType.name != key_typeName.value.name) {
-					throw new CoreException(new Status(IStatus.ERROR, "org.eclipse.mita.base", "Bad reverse lookup!"));
-				}
-				return realType;
-			];
-		].force;
+		val explicitSubTypes = #[t] + getExplicitlyRelatedTypes(s, t, false);
 		return explicitSubTypes + #[t, new BottomType(null, "")];
 	}
 	dispatch def getSubTypes(ConstraintSystem s, Object t, EObject typeResolveOrigin) {
@@ -0,0 +1,36 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.base.typesystem.infra
+
+import java.util.HashMap
+import java.util.Map
+import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.mita.base.typesystem.types.AbstractType
+import org.eclipse.mita.base.typesystem.types.TypeVariable
+import org.eclipse.xtend.lib.annotations.Accessors
+
+/**
+ * Results of {@link SubtypeChecker} memoized for one constraint system.
+ * They only depend on the types of the stdlib, so they stay valid while the system is solved.
+ * Super and sub types within the explicit subtype relations are memoized by the graph itself, see {@link Graph#getClosure}.
+ */
+@Accessors
+class SubtypeCheckerCache {
+	// integer and floating point types a numeric type is a subtype of, by type and resource the stdlib types are resolved in
+	protected final Map<Pair<AbstractType, Resource>, Iterable<AbstractType>> numericSuperTypes = new HashMap();
+	// integer and floating point types which are a subtype of a numeric type
+	protected final Map<Pair<AbstractType, Resource>, Iterable<AbstractType>> numericSubTypes = new HashMap();
+	// optional<T> instantiated once per resource: its type variable T and the type itself
+	protected final Map<Resource, Pair<TypeVariable, AbstractType>> optionalTypes = new HashMap();
+}
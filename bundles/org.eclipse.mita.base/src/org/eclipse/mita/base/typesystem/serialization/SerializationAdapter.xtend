@@ -26,8 +26,17 @@ import io.protostuff.LinkedBuffer
 import io.protostuff.ProtostuffIOUtil
 import io.protostuff.Schema
 import io.protostuff.runtime.RuntimeSchema
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap
+import it.unimi.dsi.fastutil.ints.IntAVLTreeSet
+import it.unimi.dsi.fastutil.ints.IntSet
 import java.lang.reflect.Type
+import java.nio.charset.StandardCharsets
+import java.util.ArrayList
 import java.util.HashMap
+import java.util.HashSet
+import java.util.List
+import java.util.Map
+import java.util.Set
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.EClass
 import org.eclipse.emf.ecore.EObject
@@ -61,6 +70,7 @@ import org.eclipse.mita.base.typesystem.types.ProdType
 import org.eclipse.mita.base.typesystem.types.SumType
 import org.eclipse.mita.base.typesystem.types.TypeConstructorType
 import org.eclipse.mita.base.typesystem.types.TypeHole
+import org.eclipse.mita.base.typesystem.types.TypeInterner
 import org.eclipse.mita.base.typesystem.types.TypeScheme
 import org.eclipse.mita.base.typesystem.types.TypeVariable
 import org.eclipse.mita.base.typesystem.types.TypeVariableProxy
@@ -73,6 +83,10 @@ import org.eclipse.mita.base.typesystem.types.DependentTypeVariable
 import org.eclipse.mita.base.typesystem.types.LiteralNumberType
 import org.eclipse.mita.base.typesystem.types.NumericAddType
 
+/**
+ * (De-)serializes constraint systems. Instances keep state while (de-)serializing,
+ * so threads working concurrently should each use their own instance.
+ */
 class SerializationAdapter {
 	
 	@Inject 
@@ -81,17 +95,69 @@ class SerializationAdapter {
 	protected (URI) => EObject objectResolver;
 	
 	protected LinkedBuffer buffer = LinkedBuffer.allocate(512);
+	
+	/*
+	 * Almost all URIs we serialize point into a handful of resources, so instead of repeating the resource URI for every type and issue
+	 * we store each resource URI once in SerializedConstraintSystem.resourceUris and reference it by index: "<index>#<fragment>".
+	 */
+	protected List<String> resourceUriTable;
+	protected Map<String, Integer> resourceUriIndices;
+	protected List<URI> resolvedResourceUriTable;
+	
+	/*
+	 * Deserialized systems repeat the same types and origins over and over, so while deserializing we share one instance of each:
+	 * equal types are hash-consed by typeInterner and origins are resolved to one proxy per URI.
+	 */
+	protected TypeInterner typeInterner;
+	protected Map<URI, EObject> originProxies;
 		
 	def ConstraintSystem deserializeConstraintSystemFromJSON(String json, (URI)=>EObject objectResolver) {
 		val Schema<SerializedConstraintSystem> schema = RuntimeSchema.getSchema(SerializedConstraintSystem);
 		this.objectResolver = objectResolver ?: [URI uri| this.toEObjectProxy(uri) ];
-		val bytes = json.getBytes("ISO-8859-1");
+		val bytes = json.getBytes(StandardCharsets.ISO_8859_1);
 		val serialized = schema.newMessage();
 		ProtostuffIOUtil.mergeFrom(bytes, serialized, schema);
 		
-		
-    	val result = serialized.fromValueObject() as ConstraintSystem;
-    	return result;
+		// descriptions written before URIs were interned have no table and contain plain URIs
+		this.resolvedResourceUriTable = serialized.resourceUris?.map[URI.createURI(it)]?.toList;
+		this.typeInterner = new TypeInterner();
+		this.originProxies = new HashMap();
+		try {
+			val result = serialized.fromValueObject() as ConstraintSystem;
+			return result;
+		}
+		finally {
+			this.typeInterner = null;
+			this.originProxies = null;
+		}
+	}
+	
+	protected def String serializeUri(URI uri) {
+		val resourceUri = uri.trimFragment.toString;
+		val idx = resourceUriIndices.computeIfAbsent(resourceUri, [
+			resourceUriTable += it;
+			return resourceUriTable.size - 1;
+		]);
+		return if(uri.hasFragment) {
+			idx + "#" + uri.fragment;
+		} else {
+			idx.toString;
+		}
+	}
+	
+	protected def String serializeUri(EObject obj) {
+		return if(obj === null) null else EcoreUtil.getURI(obj).serializeUri;
+	}
+	
+	protected def URI deserializeUri(String uri) {
+		if(resolvedResourceUriTable.nullOrEmpty) {
+			return URI.createURI(uri);
+		}
+		val fragmentStart = uri.indexOf('#');
+		if(fragmentStart < 0) {
+			return resolvedResourceUriTable.get(Integer.parseInt(uri));
+		}
+		return resolvedResourceUriTable.get(Integer.parseInt(uri.substring(0, fragmentStart))).appendFragment(uri.substring(fragmentStart + 1));
 	}
 
 	protected dispatch def ValidationIssue fromValueObject(SerializedValidationIssue obj) {
@@ -116,7 +182,7 @@ class SerializationAdapter {
 	protected dispatch def ConstraintSystem fromValueObject(SerializedConstraintSystem obj) {
 		val result = constraintSystemProvider.get();
 		obj.symbolTable.entrySet.forEach[u_tv | 
-			result.symbolTable.put(URI.createURI(u_tv.key), fromValueObject(u_tv.value) as TypeVariable);
+			result.symbolTable.put(u_tv.key.deserializeUri, fromValueObject(u_tv.value) as TypeVariable);
 		];
 		obj.typeTable.entrySet.forEach[u_t | 
 			result.typeTable.put(u_t.key.toQualifiedName, fromValueObject(u_t.value) as AbstractType);
@@ -140,8 +206,8 @@ class SerializationAdapter {
 	
 	protected dispatch def Graph<AbstractType> fromValueObject(SerializedAbstractTypeGraph obj) {
 		new Graph<AbstractType>() => [
-			outgoing.putAll(obj.outgoing);
-			incoming.putAll(obj.incoming);
+			obj.outgoing?.forEach[k, v | outgoing.put(k.intValue, new IntAVLTreeSet(v))];
+			obj.incoming?.forEach[k, v | incoming.put(k.intValue, new IntAVLTreeSet(v))];
 			nodeIndex.putAll(obj.nodeIndex.mapValues[it.fromValueObject as AbstractType]);
 			nextNodeInt = obj.nextNodeInt;
 			computeReverseMap();
@@ -188,7 +254,7 @@ class SerializationAdapter {
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedAtomicType obj) {
-		return new AtomicType(obj.origin.resolveEObject(), obj.name);
+		return typeInterner.intern(new AtomicType(obj.origin.resolveEObject(), obj.name));
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedBaseKind obj) {
@@ -200,11 +266,11 @@ class SerializationAdapter {
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedFloatingType obj) {
-		return new FloatingType(obj.origin.resolveEObject(), obj.widthInBytes);
+		return typeInterner.intern(new FloatingType(obj.origin.resolveEObject(), obj.widthInBytes));
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedIntegerType obj) {
-		return new IntegerType(obj.origin.resolveEObject(), obj.widthInBytes, obj.signedness);
+		return typeInterner.intern(new IntegerType(obj.origin.resolveEObject(), obj.widthInBytes, obj.signedness));
 	}
 	protected dispatch def AbstractType fromValueObject(SerializedLiteralNumberType obj) {
 		return new LiteralNumberType(obj.origin.resolveEObject(), obj.value, obj.typeOf.fromValueObject as AbstractType);
@@ -219,11 +285,11 @@ class SerializationAdapter {
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedFunctionType obj) {
-		return new FunctionType(
+		return typeInterner.intern(new FunctionType(
 			obj.origin.resolveEObject(),
 			obj.name,
 			obj.typeArguments.fromSerializedTypeArguments()
-		);
+		));
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedUnorderedArguments obj) {
@@ -231,15 +297,15 @@ class SerializationAdapter {
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedProductType obj) {
-		return new ProdType(obj.origin.resolveEObject(), obj.name, obj.typeArguments.fromSerializedTypeArguments());
+		return typeInterner.intern(new ProdType(obj.origin.resolveEObject(), obj.name, obj.typeArguments.fromSerializedTypeArguments()));
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedSumType obj) {
-		return new SumType(obj.origin.resolveEObject(), obj.name, obj.typeArguments.fromSerializedTypeArguments());
+		return typeInterner.intern(new SumType(obj.origin.resolveEObject(), obj.name, obj.typeArguments.fromSerializedTypeArguments()));
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedTypeConstructorType obj) {
-		return new TypeConstructorType(obj.origin.resolveEObject(), obj.name, obj.typeArguments.fromSerializedTypeArguments());
+		return typeInterner.intern(new TypeConstructorType(obj.origin.resolveEObject(), obj.name, obj.typeArguments.fromSerializedTypeArguments()));
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedTypeScheme obj) {
@@ -248,7 +314,7 @@ class SerializationAdapter {
 	
 	protected dispatch def AbstractType fromValueObject(SerializedTypeVariable obj) {
 		val origin = obj.origin.resolveEObject();
-		return new TypeVariable(origin, obj.idx);
+		return typeInterner.intern(new TypeVariable(origin, obj.idx));
 	}
 	
 	protected dispatch def AbstractType fromValueObject(SerializedDependentTypeVariable obj) {
@@ -276,9 +342,11 @@ class SerializationAdapter {
 	
 	protected def resolveEObject(String uri, boolean resolveExternally) {
 		return if(uri !== null) {
-			val realUri = URI.createURI(uri);
+			val realUri = uri.deserializeUri;
 			if(resolveExternally) {
 				this.objectResolver.apply(realUri);
+			} else if(originProxies !== null) {
+				originProxies.computeIfAbsent(realUri, [this.toEObjectProxy(it)]);
 			} else {
 				this.toEObjectProxy(realUri);
 			}
@@ -303,13 +371,19 @@ class SerializationAdapter {
 		synchronized(buffer) {
 			val schema = RuntimeSchema.getSchema(SerializedConstraintSystem);
 			try {
-				content = ProtostuffIOUtil.toByteArray(system.toValueObject as SerializedConstraintSystem, schema, buffer);
+				resourceUriTable = new ArrayList();
+				resourceUriIndices = new HashMap();
+				val serialized = system.toValueObject as SerializedConstraintSystem;
+				serialized.resourceUris = resourceUriTable;
+				content = ProtostuffIOUtil.toByteArray(serialized, schema, buffer);
 			}
 			finally {
 				buffer.clear();
+				resourceUriTable = null;
+				resourceUriIndices = null;
 			}
 		}
-		return new String(content, "ISO-8859-1");		
+		return new String(content, StandardCharsets.ISO_8859_1);		
 	}
 			
 	protected dispatch def Object toValueObject(LiteralNumberType lit) {
@@ -331,7 +405,7 @@ class SerializationAdapter {
 			severity = issue.severity;
 			message = issue.message;
 			issueCode = issue.issueCode;
-			target = if(issue.target === null) null else EcoreUtil.getURI(issue.target).toString();
+			target = issue.target.serializeUri;
 			feature = issue.feature.toValueObject as SerializedFeature;
 		]
 	}
@@ -347,7 +421,7 @@ class SerializationAdapter {
 		new SerializedConstraintSystem => [
 			symbolTable = obj.symbolTable
 				.entrySet.sortBy[it.key.toString]
-				.map[it.key.toString() -> it.value.toValueObject ]
+				.map[it.key.serializeUri -> it.value.toValueObject ]
 				.toMap([it.key], [it.value])
 			typeTable = obj.typeTable
 				.entrySet.sortBy[it.key.toString]
@@ -369,13 +443,20 @@ class SerializationAdapter {
 	
 	protected dispatch def Object toValueObject(Graph<AbstractType> obj) {
 		new SerializedAbstractTypeGraph => [
-			outgoing = obj.outgoing;
-			incoming = obj.incoming;
+			outgoing = obj.outgoing.toSerializedAdjacency;
+			incoming = obj.incoming.toSerializedAdjacency;
 			nodeIndex = obj.nodeIndex.mapValues[it.toValueObject as SerializedAbstractType];
 			nextNodeInt = obj.nextNodeInt;
 		]
 	}
 	
+	protected def Map<Integer, Set<Integer>> toSerializedAdjacency(Int2ObjectMap<IntSet> adjacency) {
+		// serialize plain collections, so serialized systems don't depend on the graph's implementation
+		val result = new HashMap<Integer, Set<Integer>>();
+		adjacency.int2ObjectEntrySet.forEach[result.put(intKey, new HashSet(value))];
+		return result;
+	}
+	
 	protected dispatch def Object toValueObject(EqualityConstraint obj) {
 		new SerializedEqualityConstraint => [
 			errorMessage = obj._errorMessage.toValueObject as SerializedValidationIssue
@@ -412,7 +493,7 @@ class SerializationAdapter {
 		new SerializedFunctionTypeClassConstraint => [
 			errorMessage = obj._errorMessage.toValueObject as SerializedValidationIssue
 			type = obj.typ.toValueObject as SerializedAbstractType
-			functionCall = if(obj.functionCall === null) null else EcoreUtil.getURI(obj.functionCall).toString();
+			functionCall = obj.functionCall.serializeUri;
 			functionReference = obj.functionReference?.toValueObject;
 			returnTypeTV = obj.returnTypeTV.toValueObject as SerializedTypeVariable;
 			instanceOfQN = obj.instanceOfQN.toString()
@@ -423,7 +504,7 @@ class SerializationAdapter {
 	protected dispatch def Object toValueObject(TypeClass obj) {
 		new SerializedTypeClass => [
 			instances = obj.instances.entrySet
-				.map[ it.key.toValueObject as SerializedAbstractType ->  if(it.value === null) null else EcoreUtil.getURI(it.value).toString() ]
+				.map[ it.key.toValueObject as SerializedAbstractType -> it.value.serializeUri ]
 				.toMap([ it.key ], [ it.value ])
 		]
 	}
@@ -435,13 +516,13 @@ class SerializationAdapter {
 	}
 	
 	protected dispatch def Object fill(SerializedAbstractType ctxt, TypeVariable obj) {
-		ctxt.origin = if(obj.origin === null) null else EcoreUtil.getURI(obj.origin).toString()
+		ctxt.origin = obj.origin.serializeUri
 		return ctxt;
 	}
 		
 	protected dispatch def Object fill(SerializedAbstractType ctxt, AbstractType obj) {
 		ctxt.name = obj.name;
-		ctxt.origin = if(obj.origin === null) null else EcoreUtil.getURI(obj.origin).toString()
+		ctxt.origin = obj.origin.serializeUri
 		return ctxt;
 	}
 	
@@ -31,6 +31,8 @@ final class SerializedConstraintSystem {
 	public Map<Integer, Object> explicitSubtypeRelationsTypeSource;
 	public Map<String, Map<String, String>> userData;
 	public int instanceCount;
+	// resource URIs referenced by index from all serialized URIs
+	public List<String> resourceUris;
 }
 
 final class SerializedAbstractTypeGraph {    
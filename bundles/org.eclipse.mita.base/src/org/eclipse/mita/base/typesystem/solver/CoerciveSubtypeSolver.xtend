@@ -15,8 +15,10 @@ package org.eclipse.mita.base.typesystem.solver
 
 import com.google.inject.Inject
 import com.google.inject.Provider
+import java.util.Collections
 import java.util.HashMap
 import java.util.HashSet
+import java.util.IdentityHashMap
 import java.util.List
 import java.util.Map
 import java.util.Set
@@ -61,6 +63,7 @@ import org.eclipse.mita.base.typesystem.types.TypeScheme
 import org.eclipse.mita.base.typesystem.types.TypeVariable
 import org.eclipse.mita.base.typesystem.types.UnorderedArguments
 import org.eclipse.mita.base.util.DebugTimer
+import org.eclipse.mita.base.util.TypingMetrics
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtend.lib.annotations.EqualsHashCode
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
@@ -99,6 +102,9 @@ class CoerciveSubtypeSolver implements IConstraintSolver {
 	
 	protected var DebugTimer debugTimer = new DebugTimer(true);
 	
+	// solving stops at the first iteration which changes nothing, this only guards against systems which never settle
+	protected static val MAX_ITERATIONS = 10;
+	
 	def CancelIndicator getCancelIndicatorOrNull(Resource resource) {
 		if(resource instanceof MitaBaseResource) {
 			return resource.cancelIndicator;
@@ -108,7 +114,12 @@ class CoerciveSubtypeSolver implements IConstraintSolver {
 	
 	override ConstraintSolution solve(ConstraintSolution _solution, EObject typeResolutionOrigin) {
 		val system = _solution.system;
-		debugTimer = new DebugTimer(true);
+		val metrics = TypingMetrics.INSTANCE;
+		debugTimer = new DebugTimer(!metrics.enabled);
+		if(metrics.enabled) {
+			metrics.count("solver.solves");
+			system.constraints.forEach[metrics.count("solver.constraints." + it.class.simpleName)];
+		}
 				
 		val cancelInidicator = typeResolutionOrigin.eResource.getCancelIndicatorOrNull;		
 		var currentSystem = system;
@@ -160,10 +171,14 @@ class CoerciveSubtypeSolver implements IConstraintSolver {
 		debugTimer.stop("tcc-unification")
 		
 		debugTimer.start("solveloop")
-		for(var i = 0; i < 10; i++) {
+		var reachedFixpoint = false;
+		for(var i = 0; i < MAX_ITERATIONS && !reachedFixpoint; i++) {
 			if(cancelInidicator !== null && cancelInidicator.isCanceled()) {
 				return null;
 			}
+			metrics.count("solver.iterations");
+			val constraintsBefore = currentSystem.constraints.toList;
+			val substitutionBefore = currentSubstitution.contentVersion;
 			
 			debugTimer.start("simplify." + (i + 2));
 			val simplification = currentSystem.simplify(currentSubstitution, typeResolutionOrigin);
@@ -196,20 +211,49 @@ class CoerciveSubtypeSolver implements IConstraintSolver {
 			debugTimer.stop("solveSubtypeConstraints." + (i + 2));
 			
 			debugTimer.start("substitute." + (i + 2));
+			val constraintsSolved = result.system.constraints.toList;
 			currentSystem = currentSubstitution.apply(result.system);
 			debugTimer.stop("substitute." + (i + 2));
+			
+			// constraints are only replaced if the substitution touches one of their free variables
+			val requeued = countReplaced(constraintsSolved, currentSystem.constraints);
+			metrics.count("solver.requeued", requeued);
+			// the next iteration would compute the same from the same constraints and substitution
+			reachedFixpoint = requeued == 0 
+				&& !currentSystem.hasNonAtomicConstraints 
+				&& countReplaced(constraintsBefore, currentSystem.constraints) == 0
+				&& currentSubstitution.contentVersion == substitutionBefore;
+		}
+		if(!reachedFixpoint) {
+			metrics.count("solver.iterationLimitReached");
 		}
 		debugTimer.stop("solveloop")
 		
 		issues += validateSubtypes(currentSystem, typeResolutionOrigin);
 				
-		println('''
-		solve timing («typeResolutionOrigin.eResource.URI.lastSegment»):
-		«debugTimer»''')
+		metrics.addTimes("solver", debugTimer);
 		
 		return new ConstraintSolution(currentSystem, currentSubstitution, issues);
 	}
 		
+	/**
+	 * @returns how many constraints of after aren't in before, comparing by identity. Constraints and types are immutable, so this is how many changed. 
+	 */
+	protected static def int countReplaced(List<AbstractTypeConstraint> before, Iterable<AbstractTypeConstraint> after) {
+		val unchanged = Collections.newSetFromMap(new IdentityHashMap<AbstractTypeConstraint, Boolean>());
+		unchanged.addAll(before);
+		var result = 0;
+		var size = 0;
+		for(c : after) {
+			if(!unchanged.contains(c)) {
+				result++;
+			}
+			size++;
+		}
+		// removed constraints count as changed as well
+		return result + Math.max(0, before.size - size);
+	}
+	
 	def Iterable<ValidationIssue> validateSubtypes(ConstraintSystem system, EObject typeResolutionOrigin) {
 		val renamer = new NicerTypeVariableNamesForErrorMessages;
 		return system.constraints.filter(SubtypeConstraint).flatMap[
@@ -271,6 +315,9 @@ class CoerciveSubtypeSolver implements IConstraintSolver {
 				val constraintOutdated = resultSystem.takeOneNonAtomic();
 				val constraint = constraintOutdated.replace(resultSub);
 				debugTimer.stop("constraints");
+				if(TypingMetrics.INSTANCE.enabled) {
+					TypingMetrics.INSTANCE.count("solver.simplified." + constraint.class.simpleName);
+				}
 				
 				debugTimer.start("atomicity");
 				if(constraint.isAtomic(resultSystem)) {
@@ -295,7 +342,7 @@ class CoerciveSubtypeSolver implements IConstraintSolver {
 						val niceRenamer = new NicerTypeVariableNamesForErrorMessages;
 						issues += witnessesNotWeaklyUnifyable.map[new ValidationIssue(Severity.ERROR, "Types are recursive: " + witnessesNotWeaklyUnifyable.map[it.modifyNames(niceRenamer)].force.toString, it.origin, null, "")]; 
 						witnessesNotWeaklyUnifyable.filter(TypeVariable).forEach[
-							simplification.substitution.content.remove(it.idx);
+							simplification.substitution.remove(it);
 						]
 					}
 					debugTimer.stop("UnifyCheck");
@@ -34,6 +34,7 @@ import org.eclipse.mita.base.types.validation.IValidationIssueAcceptor.Validatio
 import org.eclipse.mita.base.typesystem.constraints.AbstractTypeConstraint
 import org.eclipse.mita.base.typesystem.constraints.EqualityConstraint
 import org.eclipse.mita.base.typesystem.infra.Graph
+import org.eclipse.mita.base.typesystem.infra.SubtypeCheckerCache
 import org.eclipse.mita.base.typesystem.infra.TypeClass
 import org.eclipse.mita.base.typesystem.infra.TypeClassProxy
 import org.eclipse.mita.base.typesystem.serialization.SerializationAdapter
@@ -72,6 +73,8 @@ class ConstraintSystem {
 	protected Map<Integer, AbstractType> explicitSubtypeRelationsTypeSource = new HashMap();
 	protected Map<String, Map<String, String>> userData = new HashMap();
 	protected Map<URI, AbstractType> coercions = new HashMap();
+	// not copied, copies memoize on their own
+	protected SubtypeCheckerCache subtypeCheckerCache = new SubtypeCheckerCache();
 	
 	private def Map<String, String> internGetUserData(String key) {
 		userData.computeIfAbsent(key, [new HashMap()]);
@@ -21,6 +21,7 @@ import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet
 import it.unimi.dsi.fastutil.ints.IntSet
 import java.util.Map
+import java.util.concurrent.atomic.AtomicLong
 import java.util.function.Predicate
 import org.eclipse.mita.base.typesystem.types.AbstractType
 import org.eclipse.mita.base.typesystem.types.TypeVariable
@@ -33,16 +34,87 @@ import org.eclipse.mita.base.typesystem.constraints.TypeClassConstraint
 import java.util.stream.Collectors
 import java.util.ArrayDeque
 
+/**
+ * Copies share their maps with the original until either of them is modified (copy on write),
+ * so maps returned by {@link #getContent} and {@link #getIdxToTypeVariable} must not be modified directly.
+ * 
+ * Whether the content of a substitution changed can be told by {@link #getContentVersion} without comparing maps.
+ */
 class Substitution {
 	@Inject protected Provider<ConstraintSystem> constraintSystemProvider;
 	@Inject
 	protected MostGenericUnifierComputer mguComputer
-	@Accessors
+	@Accessors(PUBLIC_GETTER)
 	protected Int2ObjectMap<AbstractType> content = new Int2ObjectOpenHashMap();
-	@Accessors
+	@Accessors(PUBLIC_GETTER)
 	protected Int2ObjectMap<TypeVariable> idxToTypeVariable = new Int2ObjectOpenHashMap();
 	protected Int2ObjectMap<IntSet> tvHasThisFreeVar = new Int2ObjectOpenHashMap();
 	
+	// whether each of the maps above might be shared with a copy of this substitution
+	protected boolean contentShared = false;
+	protected boolean idxToTypeVariableShared = false;
+	protected boolean freeVarsShared = false;
+	// free variables whose sets in tvHasThisFreeVar aren't shared with another substitution
+	protected IntSet ownedFreeVarSets = new IntOpenHashSet();
+	
+	static val contentVersions = new AtomicLong();
+	protected long contentVersion = contentVersions.incrementAndGet();
+	
+	/**
+	 * @returns a number which changes whenever content is modified. Copies have the version of their original until either of them is modified,
+	 * so two substitutions with the same version have the same content.
+	 */
+	def long getContentVersion() {
+		return contentVersion;
+	}
+	
+	protected def void contentModified() {
+		contentVersion = contentVersions.incrementAndGet();
+	}
+	
+	def void setContent(Int2ObjectMap<AbstractType> content) {
+		this.content = content;
+		// the caller may still hold content
+		contentShared = true;
+		contentModified();
+	}
+	
+	protected def void markShared() {
+		contentShared = true;
+		idxToTypeVariableShared = true;
+		freeVarsShared = true;
+	}
+	
+	/**
+	 * Copies maps shared with another substitution before they are modified.
+	 */
+	protected def void ensureUnshared() {
+		if(contentShared) {
+			content = new Int2ObjectOpenHashMap(content);
+			contentShared = false;
+		}
+		if(idxToTypeVariableShared) {
+			idxToTypeVariable = new Int2ObjectOpenHashMap(idxToTypeVariable);
+			idxToTypeVariableShared = false;
+		}
+		if(freeVarsShared) {
+			tvHasThisFreeVar = new Int2ObjectOpenHashMap(tvHasThisFreeVar);
+			ownedFreeVarSets = new IntOpenHashSet();
+			freeVarsShared = false;
+		}
+	}
+	
+	protected def IntSet mutableFreeVarSet(int freeVarIdx) {
+		val freeVarSet = tvHasThisFreeVar.get(freeVarIdx);
+		if(freeVarSet !== null && ownedFreeVarSets.contains(freeVarIdx)) {
+			return freeVarSet;
+		}
+		val result = if(freeVarSet === null) new IntOpenHashSet() else new IntOpenHashSet(freeVarSet);
+		tvHasThisFreeVar.put(freeVarIdx, result);
+		ownedFreeVarSets.add(freeVarIdx);
+		return result;
+	}
+	
 	def Substitution filter(Predicate<TypeVariable> predicate) {
 		val result = new Substitution;
 		result.constraintSystemProvider = constraintSystemProvider;
@@ -86,18 +158,25 @@ class Substitution {
 	def Substitution replace(TypeVariable from, AbstractType with) {
 		val result = new Substitution();
 		result.constraintSystemProvider = constraintSystemProvider;
-		result.content = new Int2ObjectOpenHashMap(content.mapValues[it.replace(from, with)])
+		result.content = new Int2ObjectOpenHashMap(content.size);
+		for(k_v: content.int2ObjectEntrySet) {
+			result.content.put(k_v.intKey, k_v.value.replace(from, with));
+		}
 		// nothing changes for typevariable idx
-		result.idxToTypeVariable = new Int2ObjectOpenHashMap(idxToTypeVariable);
+		result.idxToTypeVariable = idxToTypeVariable;
+		result.idxToTypeVariableShared = true;
+		idxToTypeVariableShared = true;
 		return result;
 	}
 	def Substitution replaceMutating(TypeVariable from, AbstractType with) {
 		val result = this;
+		result.ensureUnshared();
 		for(int k: result.content.keySet.force) {
 			val vOld = result.content.get(k);
 			val vNew = vOld.replace(from, with);
 			if(vOld !== vNew) {	
-				result.content.put(k, vNew);	
+				result.content.put(k, vNew);
+				result.contentModified();
 			}
 		}
 		// nothing changes for typevariable idx
@@ -123,10 +202,9 @@ class Substitution {
 		if(oldEntries == EMPTY) {
 			return new Substitution(this);
 		}
-		val copyOld = new Substitution(oldEntries);
-		val copyNew = new Substitution(this);
 		val result = oldEntries;
 		val newEntries = this;
+		result.ensureUnshared();
 		result.constraintSystemProvider = newEntries.constraintSystemProvider ?: oldEntries.constraintSystemProvider;
 		result.idxToTypeVariable.putAll(newEntries.idxToTypeVariable);
 
@@ -142,6 +220,7 @@ class Substitution {
 			val affectedIdxs = new IntOpenHashSet();
 			for(int tvIdx: newEntries.content.keySet) {
 				val newAffectedIdxs = oldEntries.tvHasThisFreeVar.remove(tvIdx)
+				oldEntries.ownedFreeVarSets.remove(tvIdx);
 				if(newAffectedIdxs !== null) {
 					affectedIdxs.addAll(newAffectedIdxs);
 				}
@@ -171,22 +250,41 @@ class Substitution {
 				}
 			}	
 		}
-		result.content.putAll(newEntries.content);
+		if(!newEntries.content.empty) {
+			result.content.putAll(newEntries.content);
+			result.contentModified();
+		}
 		for(k_v: newEntries.tvHasThisFreeVar.int2ObjectEntrySet) {
 			// if somethings already there, we add all new ones
-			// otherwise we put the set and `putIfAbsent` returns null, so the elvis isn't done.
-			result.tvHasThisFreeVar.putIfAbsent(k_v.intKey, k_v.value)?.addAll(k_v.value);
+			// otherwise we share the set with newEntries until either of them modifies it.
+			if(result.tvHasThisFreeVar.containsKey(k_v.intKey)) {
+				result.mutableFreeVarSet(k_v.intKey).addAll(k_v.value);
+			}
+			else {
+				result.tvHasThisFreeVar.put(k_v.intKey, k_v.value);
+				result.ownedFreeVarSets.remove(k_v.intKey);
+				newEntries.ownedFreeVarSets.remove(k_v.intKey);
+			}
 		}
 		
 		return result;
 	}
 	
 	def void addToContent(TypeVariable tv, AbstractType typ) {
+		ensureUnshared();
 		content.put(tv.idx, typ);
+		contentModified();
 		idxToTypeVariable.put(tv.idx, tv);
 		val freeVars = typ.freeVars;
 		for(fv: freeVars) {
-			tvHasThisFreeVar.computeIfAbsent(fv.idx, [int __| new IntOpenHashSet()]).add(tv.idx);		
+			mutableFreeVarSet(fv.idx).add(tv.idx);
+		}
+	}
+	
+	def void remove(TypeVariable tv) {
+		ensureUnshared();
+		if(content.remove(tv.idx) !== null) {
+			contentModified();
 		}
 	}
 	
@@ -255,6 +353,10 @@ class Substitution {
 	
 	public static final Substitution EMPTY = new Substitution() {
 		
+		override markShared() {
+			// never modified, so there is nothing to copy
+		}
+		
 		override apply(Substitution to) {
 			return to;
 		}
@@ -285,12 +387,12 @@ class Substitution {
 	
 	new(Substitution substitution) {
 		this.constraintSystemProvider = substitution.constraintSystemProvider;
-		this.content = new Int2ObjectOpenHashMap(substitution.content);
-		this.idxToTypeVariable = new Int2ObjectOpenHashMap(substitution.idxToTypeVariable);
-		this.tvHasThisFreeVar = new Int2ObjectOpenHashMap(substitution.tvHasThisFreeVar.size);
-		for(k_v: substitution.tvHasThisFreeVar.int2ObjectEntrySet) {
-			this.tvHasThisFreeVar.put(k_v.intKey, new IntOpenHashSet(k_v.value));
-		}
+		this.content = substitution.content;
+		this.idxToTypeVariable = substitution.idxToTypeVariable;
+		this.tvHasThisFreeVar = substitution.tvHasThisFreeVar;
+		this.contentVersion = substitution.contentVersion;
+		markShared();
+		substitution.markShared();
 	}
 	
 	new() {
@@ -64,6 +64,10 @@ abstract class AbstractType {
 		if(this.hasNoFreeVars) {
 			return this;
 		}
+		// free variables are cached by compound types, so this is cheaper than rebuilding the type to find out nothing changed
+		if(!freeVars.exists[sub.content.containsKey(it.idx)]) {
+			return this;
+		}
 		return map[it.replace(sub)];
 	}
 	
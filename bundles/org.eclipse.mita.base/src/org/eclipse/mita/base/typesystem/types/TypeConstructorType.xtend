@@ -37,6 +37,9 @@ class TypeConstructorType extends AbstractType {
 	protected static Integer instanceCount = 0;
 	protected val List<Pair<AbstractType, Variance>> typeArgumentsAndVariances;
 	private transient val List<TypeVariable> _freeVars;
+	// types are immutable, so the hash is computed on first use only. 0 means not computed yet.
+	@Accessors(NONE)
+	private transient int _hashCode;
 	
 	static def unify(ConstraintSystem system, Iterable<AbstractType> instances) {
 		// if not all sum types have the same number of arguments, return a new TV
@@ -174,10 +177,14 @@ class TypeConstructorType extends AbstractType {
 		if(getClass() !== obj.getClass()) {
 			return false
 		}
+		var TypeConstructorType other = (obj as TypeConstructorType)
+		// hashes are cached, so this avoids comparing type arguments of most unequal types
+		if(hashCode() != other.hashCode()) {
+			return false
+		}
 		if(!super.equals(obj)) {
 			return false
 		}
-		var TypeConstructorType other = (obj as TypeConstructorType)
 		if (this.typeArguments === null) {
 			if(other.typeArguments !== null) {
 				return false
@@ -192,9 +199,13 @@ class TypeConstructorType extends AbstractType {
 	}
 
 	@Pure override int hashCode() {
+		if(_hashCode != 0) {
+			return _hashCode
+		}
 		val int prime = 31
 		var int result = super.hashCode()
 		result = prime * result + (if((this.typeArguments === null)) 0 else this.typeArguments.hashCode() )
+		_hashCode = result
 		return result
 	}
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.base.typesystem.types
+
+import java.util.HashMap
+import java.util.Map
+import java.util.Set
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+/**
+ * Hash-conses types: types which are equal, have the same name and the same origin are replaced by one shared instance.
+ * Since types are immutable this can't be observed, except that shared types are stored once.
+ * Equality stays structural, interning only saves memory. Only deserialized types are interned (see {@link org.eclipse.mita.base.typesystem.serialization.SerializationAdapter}),
+ * types created while solving are not.
+ *
+ * Only types whose equality covers all of their state are interned, other types are returned as they are.
+ * Intern the type arguments of a type before the type itself, then comparing two candidates doesn't have to recurse.
+ * Instances are not thread safe and keep all interned types alive, so use one instance per batch of types, for example while deserializing one constraint system.
+ */
+class TypeInterner {
+	// subclasses of these types add state which isn't part of equals or depends on how they were constructed
+	protected static val Set<Class<? extends AbstractType>> INTERNED_TYPES = #{
+		AtomicType, IntegerType, FloatingType, TypeVariable, TypeConstructorType, ProdType, SumType, FunctionType
+	};
+
+	protected val Map<Key, AbstractType> instances = new HashMap();
+
+	def <T extends AbstractType> T intern(T type) {
+		if(type === null || !INTERNED_TYPES.contains(type.class)) {
+			return type;
+		}
+		return instances.computeIfAbsent(new Key(type), [type]) as T;
+	}
+
+	def int size() {
+		return instances.size;
+	}
+
+	@FinalFieldsConstructor
+	protected static class Key {
+		protected final AbstractType type;
+
+		override hashCode() {
+			return 31 * type.hashCode + System.identityHashCode(type.origin);
+		}
+
+		override equals(Object obj) {
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			val other = (obj as Key).type;
+			if(type.class !== other.class || type.origin !== other.origin || type.name != other.name || type != other) {
+				return false;
+			}
+			// variances aren't part of equality of type constructors
+			if(type instanceof TypeConstructorType) {
+				return type.typeArgumentsAndVariances.map[it.value] == (other as TypeConstructorType).typeArgumentsAndVariances.map[it.value];
+			}
+			return true;
+		}
+	}
+}
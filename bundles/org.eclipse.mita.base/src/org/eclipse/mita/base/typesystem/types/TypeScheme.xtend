@@ -33,6 +33,9 @@ import org.eclipse.mita.base.typesystem.infra.NicerTypeVariableNamesForErrorMess
 class TypeScheme extends AbstractType {	
 	protected final List<TypeVariable> vars;
 	public final AbstractType on;
+	// computed on first use, since filtering the free variables of on is expensive for large types
+	@Accessors(NONE)
+	transient List<TypeVariable> _freeVars;
 	
 	new(EObject origin, List<TypeVariable> vars, AbstractType on) {
 		super(origin, on.name);
@@ -66,7 +69,10 @@ class TypeScheme extends AbstractType {
 	}
 	
 	override getFreeVars() {
-		return on.freeVars.filter(TypeVariable).reject[vars.contains(it)];
+		if(_freeVars === null) {
+			_freeVars = on.freeVars.filter(TypeVariable).reject[vars.contains(it)].toList;
+		}
+		return _freeVars;
 	}
 	
 	def instantiate(ConstraintSystem system, EObject origin) {
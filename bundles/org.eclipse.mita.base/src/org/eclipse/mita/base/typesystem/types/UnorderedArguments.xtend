@@ -45,10 +45,6 @@ class UnorderedArguments extends TypeConstructorType {
 		return this;
 	}
 	
-	override getFreeVars() {
-		return argParamNamesAndValueTypes.flatMap[it.value.freeVars];
-	}
-	
 	override toGraphviz() {
 		return "";
 	}
@@ -13,12 +13,10 @@
 
 package org.eclipse.mita.base.util
 
-import java.time.Instant
 import java.util.Stack
 import java.util.LinkedList
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import org.eclipse.xtend.lib.annotations.Accessors
-import java.time.Duration
 
 class DebugTimer {
 	protected val traces = new Stack<Trace>();
@@ -34,7 +32,7 @@ class DebugTimer {
 		if(disable) {
 			return;
 		}
-		this.traces.push(new Trace(Instant.now(), name, Thread.currentThread.id));
+		this.traces.push(new Trace(System.nanoTime(), name, Thread.currentThread.id));
 	}
 	
 	public def stop(String expectedName) {
@@ -44,7 +42,7 @@ class DebugTimer {
 		if (!this.traces.isEmpty()) {
 			val prev = this.traces.pop();
 			val internalPrefix = computeName(prev.name);
-			this.results.add(new TraceResult(Duration.between(prev.start, Instant.now()).nano, internalPrefix, traces.length));
+			this.results.add(new TraceResult(System.nanoTime() - prev.startNs, internalPrefix, traces.length));
 			
 			if(prev.name != expectedName) {
 				throw new Exception("different timer stopped");
@@ -55,6 +53,10 @@ class DebugTimer {
 		}
 	}
 	
+	public def Iterable<TraceResult> getResults() {
+		return results;
+	}
+	
 	public def getByPrefix(String prefix) {
 		if(disable) {
 			return #[];
@@ -99,7 +101,7 @@ class DebugTimer {
 	@FinalFieldsConstructor
 	@Accessors
 	static class Trace {
-		protected val Instant start;
+		protected val long startNs;
 		protected val String name;
 		protected val long threadID;
 	}
@@ -0,0 +1,88 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.base.util
+
+import java.io.BufferedReader
+import java.io.InputStreamReader
+import java.nio.charset.StandardCharsets
+import java.util.Collections
+import java.util.LinkedHashMap
+import java.util.Map
+import java.util.regex.Pattern
+import org.apache.log4j.Logger
+
+/**
+ * Library indices list the library files of stdlib and platform bundles, one line "<sha256> <path>" per file.
+ * Paths are relative to the bundle root and separated by '/'. The indices are generated at build time, see the parent pom.
+ */
+class LibraryIndex {
+	public static val LOCATION = "META-INF/mita/libraries.index";
+
+	static val Pattern SHA256 = Pattern.compile("[0-9a-fA-F]{64}");
+
+	static val LOGGER = Logger.getLogger(LibraryIndex);
+
+	/**
+	 * Reads all library indices visible to classLoader. Entries whose path the class loader can't find are skipped with a warning.
+	 * The classpath URI of a path resolves to the first bundle providing it, so later entries of the same path are ignored.
+	 *
+	 * @returns the hashes of all listed library files by their path, in classpath order
+	 */
+	static def Map<String, String> read(ClassLoader classLoader) {
+		val hashesByPath = new LinkedHashMap<String, String>();
+		for(index : Collections.list(classLoader.getResources(LOCATION))) {
+			try(val reader = new BufferedReader(new InputStreamReader(index.openStream, StandardCharsets.UTF_8))) {
+				for(var line = reader.readLine; line !== null; line = reader.readLine) {
+					val entry = parseLine(line);
+					if(entry === null) {
+						if(!line.trim.empty) {
+							LOGGER.warn("Ignoring malformed line '" + line + "' in " + index);
+						}
+					}
+					else if(classLoader.getResource(entry.key) === null) {
+						LOGGER.warn("Ignoring " + entry.key + " listed in " + index + ", it is not on the classpath");
+					}
+					else {
+						val previousHash = hashesByPath.putIfAbsent(entry.key, entry.value);
+						if(previousHash !== null && previousHash != entry.value) {
+							LOGGER.warn(entry.key + " is on the classpath more than once with different contents, ignoring " + index);
+						}
+					}
+				}
+			}
+		}
+		return hashesByPath;
+	}
+
+	/**
+	 * @returns path -> hash of line, or null if line isn't a valid entry
+	 */
+	static def Pair<String, String> parseLine(String line) {
+		val separator = line.indexOf(' ');
+		if(separator <= 0) {
+			return null;
+		}
+		val hash = line.substring(0, separator);
+		// indices built on Windows separate paths by '\'
+		var path = line.substring(separator + 1).trim.replace('\\', '/');
+		while(path.startsWith('/')) {
+			path = path.substring(1);
+		}
+		// placeholders are left in the path if the index was generated with an unsupported pattern argument
+		if(!SHA256.matcher(hash).matches || path.empty || path.contains('{')) {
+			return null;
+		}
+		return path -> hash;
+	}
+}
@@ -0,0 +1,99 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.base.util
+
+import java.util.Map
+import java.util.TreeMap
+import java.util.concurrent.ConcurrentSkipListMap
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Process wide timings and counts of typing phases, to find programs which take long to type.
+ * Resources of all languages record here, so it's not bound per injector.
+ * 
+ * Recording is disabled unless the system property {@value #ENABLED_PROPERTY} is true or {@link #setEnabled} is called.
+ * While disabled recording costs a volatile read. 
+ * Callers building names for recording should check {@link #isEnabled} first.
+ */
+class TypingMetrics {
+	public static final String ENABLED_PROPERTY = "org.eclipse.mita.typing.metrics";
+	public static final TypingMetrics INSTANCE = new TypingMetrics(Boolean.getBoolean(ENABLED_PROPERTY));
+	
+	protected volatile boolean enabled;
+	protected final Map<String, LongAdder> timesNs = new ConcurrentSkipListMap();
+	protected final Map<String, LongAdder> counts = new ConcurrentSkipListMap();
+	
+	new(boolean enabled) {
+		this.enabled = enabled;
+	}
+	
+	def boolean isEnabled() {
+		return enabled;
+	}
+	
+	def void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+	
+	def void addTime(String name, long timeNs) {
+		if(enabled) {
+			timesNs.computeIfAbsent(name, [new LongAdder]).add(timeNs);
+		}
+	}
+	
+	/**
+	 * Adds all timings recorded by timer, with their names prefixed by prefix.
+	 */
+	def void addTimes(String prefix, DebugTimer timer) {
+		if(enabled) {
+			timer.results.forEach[addTime(prefix + "." + it.name, it.timeNs)];
+		}
+	}
+	
+	def void count(String name) {
+		count(name, 1);
+	}
+	
+	def void count(String name, long n) {
+		if(enabled) {
+			counts.computeIfAbsent(name, [new LongAdder]).add(n);
+		}
+	}
+	
+	def Map<String, Long> getTimesNs() {
+		return new TreeMap(timesNs.mapValues[it.sum]);
+	}
+	
+	def Map<String, Long> getCounts() {
+		return new TreeMap(counts.mapValues[it.sum]);
+	}
+	
+	def void reset() {
+		timesNs.clear();
+		counts.clear();
+	}
+	
+	override toString() {
+		return '''
+		timings:
+			«FOR name_time : getTimesNs.entrySet»
+			«name_time.key»: «name_time.value / 1000000» ms
+			«ENDFOR»
+		counts:
+			«FOR name_count : getCounts.entrySet»
+			«name_count.key»: «name_count.value»
+			«ENDFOR»
+		''';
+	}
+}
@@ -19,6 +19,10 @@ import org.apache.commons.cli.GnuParser
 import org.apache.commons.cli.HelpFormatter
 import org.apache.commons.cli.MissingOptionException
 import org.apache.commons.cli.Options
+import org.apache.log4j.ConsoleAppender
+import org.apache.log4j.Level
+import org.apache.log4j.Logger
+import org.apache.log4j.PatternLayout
 import org.eclipse.mita.base.TypeDslStandaloneSetup
 import org.eclipse.mita.cli.commands.CompileCommand
 import org.eclipse.mita.cli.commands.UnknownCommand
@@ -28,11 +32,13 @@ import org.eclipse.mita.platform.PlatformDSLStandaloneSetup
 import org.eclipse.mita.program.ProgramDslRuntimeModule
 import org.eclipse.mita.program.ProgramDslStandaloneSetup
 import org.eclipse.mita.cli.commands.LanguageServerCommand
+import org.eclipse.mita.cli.commands.ServeCommand
 
 class Main {
 	protected static val commands = #{
 		'compile' -> CompileCommand,
 		'language-server' -> LanguageServerCommand,
+		'serve' -> ServeCommand,
 		'' -> UnknownCommand
 	}
 
@@ -60,6 +66,7 @@ class Main {
 			null
 		}
 		
+		configureLogging();
 		TypeDslStandaloneSetup.doSetup();
 		
 		val injector = Guice.createInjector(Modules.override(new ProgramDslRuntimeModule()).with(new StandaloneModule()));
@@ -77,6 +84,17 @@ class Main {
 		}
 	}
 	
+	/**
+	 * Prints warnings and errors logged by the compiler to stderr, unless logging is configured already.
+	 */
+	static def configureLogging() {
+		val root = Logger.rootLogger;
+		if(!root.allAppenders.hasMoreElements) {
+			root.addAppender(new ConsoleAppender(new PatternLayout("%p: %m%n"), ConsoleAppender.SYSTEM_ERR));
+			root.level = Level.WARN;
+		}
+	}
+	
 	static def printUsage() {
 		println('''
 		usage: mita [command]
@@ -18,22 +18,30 @@ import com.google.inject.Provider
 import java.io.File
 import java.net.URL
 import java.net.URLClassLoader
+import java.nio.charset.StandardCharsets
 import java.nio.file.Files
 import java.nio.file.Paths
-import java.util.LinkedList
-import java.util.jar.JarInputStream
+import java.util.Collections
+import java.util.LinkedHashSet
+import java.util.concurrent.ForkJoinPool
+import java.util.jar.JarFile
 import org.apache.commons.cli.Option
 import org.apache.commons.cli.Options
 import org.eclipse.emf.common.notify.impl.AdapterImpl
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.util.EcoreUtil
+import org.eclipse.mita.base.scoping.BaseResourceDescriptionStrategy
 import org.eclipse.mita.base.scoping.ILibraryProvider
+import org.eclipse.mita.base.util.LibraryIndex
+import org.eclipse.mita.base.util.TypingMetrics
 import org.eclipse.mita.cli.loader.StandaloneLibraryProvider
 import org.eclipse.mita.program.generator.internal.IGeneratorOnResourceSet
 import org.eclipse.xtext.generator.GeneratorContext
+import org.eclipse.xtext.generator.IFileSystemAccess2
 import org.eclipse.xtext.generator.IGenerator2
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess
+import org.eclipse.xtext.resource.IDefaultResourceDescriptionStrategy
 import org.eclipse.xtext.resource.XtextResource
 import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.util.CancelIndicator
@@ -44,9 +52,13 @@ import org.eclipse.mita.base.typesystem.infra.MitaBaseResource
 import org.eclipse.emf.common.notify.Adapter
 import sun.applet.AppletClassLoader
 import jdk.internal.loader.ClassLoaders
-import java.nio.file.Path
 
 class CompileCommand extends AbstractCommand {
+	/**
+	 * The extension point the stdlib and all platforms contribute their libraries to.
+	 */
+	public static val LIBRARY_EXTENSION_POINT = "org.eclipse.mita.library.extension.type_library";
+	
 	@Inject
 	protected XtextResourceSet resourceSet;
 	
@@ -63,6 +75,8 @@ class CompileCommand extends AbstractCommand {
 	protected IResourceValidator resourceValidator;
 
 	protected String projectPath;
+	
+	protected int jobs;
 
 	override getOptions() {
 		val result = new Options();
@@ -72,6 +86,8 @@ class CompileCommand extends AbstractCommand {
 		result.addOption(projectPathOption);
 		
 		result.addOption('o', 'output', true, 'Directory where to generate the output');
+		result.addOption('j', 'jobs', true, 'Number of threads computing constraints while loading (default: 1, experimental)');
+		result.addOption('m', 'metrics', false, 'Print timings and counts of type inference after compiling');
 
 		return result;
 	}
@@ -79,11 +95,23 @@ class CompileCommand extends AbstractCommand {
 	override init(String commandName, CommandLine commandLine) {
 		super.init(commandName, commandLine);
 		this.projectPath = commandLine.getOptionValue('project-path');
+		this.jobs = Integer.parseInt(commandLine.getOptionValue('jobs') ?: "1");
+		if(commandLine.hasOption('metrics')) {
+			TypingMetrics.INSTANCE.enabled = true;
+		}
 		
 		return true;
 	}
 
 	def protected loadResourceSet() {
+		loadLibraries();
+		loadProject();
+	}
+	
+	/**
+	 * Loads the stdlib and all platforms on the classpath into the resource set.
+	 */
+	protected def loadLibraries() {
 		if(libraryProvider instanceof StandaloneLibraryProvider) {
 			libraryProvider.init(resourceSet);
 		}
@@ -95,8 +123,14 @@ class CompileCommand extends AbstractCommand {
 			println("Loading " + libraryFile);
 			resourceSet.getResource(URI.createURI(libraryFile.replace("\\", "/")), true);
 		}
+		precomputeConstraints(resourceSet.resources.toList);
 		validateResources(resourceSet.resources.filter[ it.URI.toString.endsWith('.platform') ]);
-		
+	}
+	
+	/**
+	 * Loads and resolves all programs in projectPath.
+	 */
+	protected def loadProject() {
 		// load project files
 		Files.find(Paths.get(this.projectPath), Integer.MAX_VALUE, [filePath, fileAttr|fileAttr.isRegularFile()]).
 			filter([x|x.toString.endsWith('.mita')]).forEach([ x |
@@ -104,6 +138,7 @@ class CompileCommand extends AbstractCommand {
 				val resource = resourceSet.getResource(fileUri, true);
 				resource.eAdapters.add(new CompileToCAdapter());
 			]);
+		precomputeConstraints(projectResources.toList);
 			
 		// resolve all user programs
 		resourceSet.resources.filter[it.eAdapters.exists[adapter | adapter instanceof CompileToCAdapter]].forEach[
@@ -111,6 +146,30 @@ class CompileCommand extends AbstractCommand {
 		]
 	}
 	
+	/**
+	 * Computes the constraints of all resources in parallel, so they don't have to be computed one resource at a time once descriptions are requested.
+	 * Only done when asked for with --jobs, since computing constraints resolves lazy cross references in the shared resource set, 
+	 * which isn't thread safe.
+	 */
+	protected def precomputeConstraints(Iterable<Resource> resources) {
+		if(jobs <= 1) {
+			return;
+		}
+		val pool = new ForkJoinPool(jobs);
+		try {
+			// each language has its own description strategy
+			resources.filter(XtextResource).groupBy[languageName].values.forEach[resourcesOfLanguage |
+				val strategy = resourcesOfLanguage.head.resourceServiceProvider.get(IDefaultResourceDescriptionStrategy);
+				if(strategy instanceof BaseResourceDescriptionStrategy) {
+					strategy.precomputeConstraints(resourcesOfLanguage, pool);
+				}
+			]
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+	
 	protected def validateResources(Iterable<Resource> resources) {
 		var hasIssues = resources.map[resource|
 			// check for issues
@@ -128,19 +187,63 @@ class CompileCommand extends AbstractCommand {
 		}
 	}
 
-	static def getAllMitaAndPlatformFilesInClasspath() {
-		val rootPaths = System.getProperty("java.class.path", "")
-		rootPaths.split(File.pathSeparator)
-			.flatMap[
-				val file = new File(it);
-				if(file.isDirectory) {
-					file.listChildren
-				} else {
-					it.listChildren
-				}
-			]
-			.filter[ it.endsWith(MitaBaseResource.PROGRAM_EXT) || it.endsWith(MitaBaseResource.PLATFORM_EXT) ]
-			.map[ it.replace('classpath://', 'classpath:/') ]
+	/**
+	 * Lists the library files of all stdlib and platform bundles on the classpath.
+	 * These bundles list their files in a library index at build time (see {@link LibraryIndex}), so mostly only the indices are read.
+	 */
+	static def Iterable<String> getAllMitaAndPlatformFilesInClasspath() {
+		val classpathRoots = System.getProperty("java.class.path", "").split(File.pathSeparator).filter[ !it.empty ];
+		return getLibraryFiles(CompileCommand.classLoader, classpathRoots);
+	}
+
+	/**
+	 * Lists the files of the library indices visible to classLoader. 
+	 * Library bundles among classpathRoots which have no index, e.g. bundles that weren't built by maven, are scanned instead.
+	 */
+	static def Iterable<String> getLibraryFiles(ClassLoader classLoader, Iterable<String> classpathRoots) {
+		val result = new LinkedHashSet<String>();
+		result += LibraryIndex.read(classLoader).keySet.map[ 'classpath:/' + it ];
+		for(root : classpathRoots) {
+			result += scanUnindexedLibrary(new File(root));
+		}
+		return result;
+	}
+
+	/**
+	 * Directories are scanned unless they have an index. 
+	 * Jars are scanned only if they have no index and contribute a library (see {@link #LIBRARY_EXTENSION_POINT}), 
+	 * which takes reading their plugin.xml instead of all of their entries.
+	 */
+	protected static def Iterable<String> scanUnindexedLibrary(File root) {
+		if(root.directory) {
+			if(new File(root, LibraryIndex.LOCATION).exists) {
+				return #[];
+			}
+			return root.listChildren.filter[ isLibraryFile ];
+		}
+		if(!root.file || !root.name.endsWith(".jar")) {
+			return #[];
+		}
+		try(val jar = new JarFile(root)) {
+			if(jar.getEntry(LibraryIndex.LOCATION) !== null || !jar.isLibraryBundle) {
+				return #[];
+			}
+			return Collections.list(jar.entries).map[ name ].filter[ isLibraryFile ].map[ 'classpath:/' + it ].toList;
+		}
+	}
+
+	protected static def boolean isLibraryBundle(JarFile jar) {
+		val pluginXml = jar.getEntry("plugin.xml");
+		if(pluginXml === null) {
+			return false;
+		}
+		try(val in = jar.getInputStream(pluginXml)) {
+			return new String(in.readAllBytes, StandardCharsets.UTF_8).contains(LIBRARY_EXTENSION_POINT);
+		}
+	}
+
+	protected static def boolean isLibraryFile(String path) {
+		return path.endsWith(MitaBaseResource.PROGRAM_EXT) || path.endsWith(MitaBaseResource.PLATFORM_EXT);
 	}
 	
 	protected static def Iterable<String> listChildren(File f) {
@@ -150,25 +253,20 @@ class CompileCommand extends AbstractCommand {
 			#["file://" + f.absolutePath]
 		}
 	}
-	
-	protected static def Iterable<String> listChildren(String url) {
-		val result = new LinkedList<String>();
-		if(!url.endsWith("jar")) {
-			return #["file://" + url]
-		}
-		try (val urlIn = Files.newInputStream(Path.of(url))) {
-       		val jarIn = new JarInputStream (urlIn);
-       		for(var entry = jarIn.getNextJarEntry(); entry !== null; entry = jarIn.getNextJarEntry()) {
-       			result.add("classpath://" + entry.name);
-       		}
-   		}
-   		return result;   			
-	}
 
 	protected def getProjectResources() {
 		return resourceSet.resources.filter[ it.eAdapters.exists[ it instanceof CompileToCAdapter ] ]
 	}
 
+	protected def generate(IFileSystemAccess2 fileSystemAccess) {
+		if (generator instanceof IGeneratorOnResourceSet) {
+			generator.doGenerate(resourceSet, fileSystemAccess, [ it.eAdapters.exists[ it instanceof CompileToCAdapter ] ]);
+		} else {
+			val generatorContext = new GeneratorContext => [cancelIndicator = CancelIndicator.NullImpl];
+			projectResources.forEach[generator.doGenerate(it, fileSystemAccess, generatorContext)]
+		}
+	}
+
 	override run() {
 		loadResourceSet();
 		if (resourceSet.resources.empty) {
@@ -178,12 +276,10 @@ class CompileCommand extends AbstractCommand {
 
 		val fileSystemAccess = fileSystemAccessProvider.get();
 		fileSystemAccess.outputPath = commandLine.getOptionValue('o') ?: projectPath + '/src-gen/';
-
-		if (generator instanceof IGeneratorOnResourceSet) {
-			generator.doGenerate(resourceSet, fileSystemAccess, [ it.eAdapters.exists[ it instanceof CompileToCAdapter ] ]);
-		} else {
-			val generatorContext = new GeneratorContext => [cancelIndicator = CancelIndicator.NullImpl];
-			projectResources.forEach[generator.doGenerate(it, fileSystemAccess, generatorContext)]
+		generate(fileSystemAccess);
+		
+		if(TypingMetrics.INSTANCE.enabled) {
+			println(TypingMetrics.INSTANCE);
 		}
 	}
 
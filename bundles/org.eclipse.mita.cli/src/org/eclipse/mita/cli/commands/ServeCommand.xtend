@@ -0,0 +1,205 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.cli.commands
+
+import java.io.BufferedReader
+import java.io.IOException
+import java.io.InputStreamReader
+import java.io.OutputStreamWriter
+import java.io.PrintWriter
+import java.net.InetAddress
+import java.net.ServerSocket
+import java.net.SocketTimeoutException
+import java.nio.charset.StandardCharsets
+import java.nio.file.FileSystems
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.nio.file.attribute.PosixFilePermissions
+import java.security.MessageDigest
+import java.security.SecureRandom
+import org.apache.commons.cli.CommandLine
+import org.apache.commons.cli.Options
+import org.eclipse.mita.base.util.TypingMetrics
+
+/**
+ * Keeps the stdlib and platforms loaded and compiles projects on request,
+ * so builds neither start a JVM nor load the libraries per project.
+ *
+ * Clients connect to localhost:port and send one request per line: the session token, a tab and the path of a project.
+ * The project is generated to project/src-gen. Requests are compiled one after another.
+ * For each request the server answers with one line, either "ok load=<ms> generate=<ms> total=<ms>" or "error <message>".
+ * The connection is closed after a request with a wrong token, and when the client sends nothing for a while (see {@link #DEFAULT_CLIENT_TIMEOUT}),
+ * so one stalled client doesn't block the server for everyone else.
+ * With --metrics the server also prints the timings and counts of type inference of each request.
+ *
+ * Any local process, and browsers too, can connect to localhost, so requests need the token to write files.
+ * A new token is created whenever the server starts and written to the token file (default: ~/.mita/serve-<port>.token),
+ * which only the current user can read. For example:
+ *
+ * <pre>printf '%s\t%s\n' "$(cat ~/.mita/serve-5008.token)" /path/to/project | nc localhost 5008</pre>
+ */
+class ServeCommand extends CompileCommand {
+	public static val DEFAULT_PORT = 5008;
+	public static val DEFAULT_CLIENT_TIMEOUT = 10000;
+
+	protected int port;
+
+	/**
+	 * How long to wait for the next request of a client in milliseconds before closing its connection.
+	 */
+	protected int clientTimeout;
+
+	protected Path tokenFile;
+
+	protected String token;
+
+	override getOptions() {
+		val result = new Options();
+		result.addOption('P', 'port', true, 'Port on localhost to accept compile requests on (default: ' + DEFAULT_PORT + ')');
+		result.addOption('t', 'token-file', true, 'File to write the session token to (default: ~/.mita/serve-<port>.token)');
+		result.addOption('j', 'jobs', true, 'Number of threads computing constraints while loading (default: 1, experimental)');
+		result.addOption('c', 'client-timeout', true, 'Milliseconds to wait for the next request of a client before closing its connection (default: ' + DEFAULT_CLIENT_TIMEOUT + ')');
+		result.addOption('m', 'metrics', false, 'Print timings and counts of type inference after each request');
+		return result;
+	}
+
+	override init(String commandName, CommandLine commandLine) {
+		super.init(commandName, commandLine);
+		this.port = Integer.parseInt(commandLine.getOptionValue('port') ?: String.valueOf(DEFAULT_PORT));
+		this.clientTimeout = Integer.parseInt(commandLine.getOptionValue('client-timeout') ?: String.valueOf(DEFAULT_CLIENT_TIMEOUT));
+		this.tokenFile = Paths.get(commandLine.getOptionValue('token-file') ?: System.getProperty("user.home") + '/.mita/serve-' + port + '.token');
+		return true;
+	}
+
+	override run() {
+		val start = System.nanoTime;
+		loadLibraries();
+		println('''Loaded «resourceSet.resources.size» libraries in «millisSince(start)» ms''');
+
+		try(val serverSocket = new ServerSocket(port, 50, InetAddress.loopbackAddress)) {
+			token = createToken();
+			println("Compile server listening on localhost:" + port + ", session token written to " + tokenFile);
+			serve(serverSocket);
+		}
+	}
+
+	/**
+	 * Handles the connections to serverSocket one after another until it is closed.
+	 * Compiles share the resource set, so they can't run in parallel anyway.
+	 */
+	protected def void serve(ServerSocket serverSocket) {
+		while(!serverSocket.closed) {
+			try(val socket = serverSocket.accept) {
+				socket.soTimeout = clientTimeout;
+				val in = new BufferedReader(new InputStreamReader(socket.inputStream, StandardCharsets.UTF_8));
+				val out = new PrintWriter(new OutputStreamWriter(socket.outputStream, StandardCharsets.UTF_8), true);
+				var authorized = true;
+				for(var request = in.readLine; authorized && request !== null; request = in.readLine) {
+					if(!request.trim.empty) {
+						val separator = request.indexOf('\t');
+						authorized = separator >= 0 && isToken(request.substring(0, separator));
+						out.println(if(authorized) compile(request.substring(separator + 1)) else "error Wrong session token");
+					}
+				}
+			}
+			catch(SocketTimeoutException e) {
+				System.err.println("Closed connection of idle client");
+			}
+			catch(IOException e) {
+				if(!serverSocket.closed) {
+					System.err.println("Connection failed: " + e.message);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a random token for this session and writes it to tokenFile, which only the current user can read.
+	 */
+	protected def String createToken() {
+		val bytes = newByteArrayOfSize(32);
+		new SecureRandom().nextBytes(bytes);
+		val result = bytes.map[String.format("%02x", it)].join;
+		Files.createDirectories(tokenFile.toAbsolutePath.parent);
+		// recreate the file, so its permissions are set before the token is written
+		Files.deleteIfExists(tokenFile);
+		if(FileSystems.^default.supportedFileAttributeViews.contains("posix")) {
+			Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		} else {
+			Files.createFile(tokenFile);
+		}
+		Files.writeString(tokenFile, result);
+		return result;
+	}
+
+	protected def boolean isToken(String candidate) {
+		// compares in constant time, so the token can't be guessed byte by byte
+		return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), candidate.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Compiles the project at path into path/src-gen and removes it from the resource set again, keeping the libraries loaded.
+	 *
+	 * @returns the response to the request
+	 */
+	protected def String compile(String path) {
+		projectPath = path.trim;
+		val outputPath = projectPath + '/src-gen/';
+
+		val start = System.nanoTime;
+		TypingMetrics.INSTANCE.reset();
+		try {
+			loadProject();
+			if(projectResources.empty) {
+				return "error Project " + projectPath + " is empty";
+			}
+			val loaded = System.nanoTime;
+
+			val fileSystemAccess = fileSystemAccessProvider.get();
+			fileSystemAccess.outputPath = outputPath;
+			generate(fileSystemAccess);
+
+			val result = '''ok load=«millisBetween(start, loaded)» generate=«millisSince(loaded)» total=«millisSince(start)»''';
+			println(projectPath + ": " + result);
+			if(TypingMetrics.INSTANCE.enabled) {
+				println(TypingMetrics.INSTANCE);
+			}
+			return result;
+		}
+		catch(Exception e) {
+			System.err.println(projectPath + ": " + e.message);
+			return "error " + (e.message ?: e.class.simpleName).replace('\n', ' ');
+		}
+		finally {
+			unloadProject();
+		}
+	}
+
+	protected def void unloadProject() {
+		for(resource : projectResources.toList) {
+			resource.unload();
+			resourceSet.resources.remove(resource);
+		}
+	}
+
+	protected static def long millisSince(long start) {
+		return millisBetween(start, System.nanoTime);
+	}
+
+	protected static def long millisBetween(long start, long end) {
+		return (end - start) / 1000000;
+	}
+
+}
@@ -89,6 +89,49 @@ class ArrayGenerator extends AbstractTypeGenerator {
 		cf('''typedef struct «typeGenerator.code(context, type)» «typeGenerator.code(context, type)»;''')
 	}
 	
+	/**
+	 * Strings share this header with arrays (see {@link StringGenerator#generateUnspecializedDefinitionsHeaderName}),
+	 * so it contains the formatters of interpolated strings as well.
+	 */
+	override generateHeader() {
+		return cf('''
+			// formatters for interpolated strings. They don't write a terminating zero and return the position after the last char they wrote.
+			static inline char* string_format_chars(char* out, const char* chars, size_t count) {
+				memcpy(out, chars, count);
+				return out + count;
+			}
+			
+			static inline char* string_format_uint32(char* out, uint32_t value) {
+				char digits[10];
+				char* first = &digits[sizeof(digits)];
+				do {
+					*--first = '0' + (value % 10);
+					value /= 10;
+				} while(value != 0);
+				return string_format_chars(out, first, &digits[sizeof(digits)] - first);
+			}
+			
+			static inline char* string_format_int32(char* out, int32_t value) {
+				if(value < 0) {
+					*out++ = '-';
+					// negate in unsigned arithmetic, -INT32_MIN doesn't fit into an int32_t
+					return string_format_uint32(out, 0u - (uint32_t) value);
+				}
+				return string_format_uint32(out, (uint32_t) value);
+			}
+			
+			static inline char* string_format_double(char* out, double value) {
+				// choosing between fixed and exponent notation like %g does isn't worth duplicating, so only this value goes through snprintf
+				char digits[«BaseUtils.DOUBLE_PRECISION + 9»];
+				int count = snprintf(digits, sizeof(digits), "%.«BaseUtils.DOUBLE_PRECISION»g", value);
+				return string_format_chars(out, digits, count);
+			}
+		''').addHeader("string.h", true)
+			.addHeader("stdio.h", true)
+			.addHeader("stddef.h", true)
+			.addHeader("inttypes.h", true);
+	}
+	
 	override generateTypeImplementations(EObject context, AbstractType type) {
 		if(getDataType(type) instanceof TypeVariable) {
 			return CodeFragment.EMPTY;
@@ -420,8 +463,48 @@ class ArrayGenerator extends AbstractTypeGenerator {
 		''')
 	}
 	
-	override generateBulkCopyStatements(EObject context, CodeFragment i, CodeWithContext left, CodeWithContext right, CodeFragment count) {
+	/**
+	 * The data of all elements of an array of arrays is allocated in one buffer, element i at i * capacity (see {@link #generateBulkAssignment}).
+	 * 
+	 * @returns the capacity of both left and right elements if they share it, so the data of consecutive elements can be copied at once. null otherwise.
+	 */
+	protected def Long getContiguousStride(AbstractType left, AbstractType right) {
+		val leftSize = left.inferredSize?.eval;
+		val rightSize = right.inferredSize?.eval;
+		return if(leftSize !== null && leftSize == rightSize) leftSize;
+	}
+	
+	/**
+	 * Copies the data of count consecutive elements with one memmove and then fixes up their lengths.
+	 * The stride is inferred statically, but sizes of arrays passed to functions aren't enforced, so the elements of either side might be laid out differently.
+	 * Therefore the generated code checks that all elements of both sides are stride apart and copies them one by one using elementwiseCopy otherwise.
+	 * Both sides may be the same buffer, for example in <code>a = a[1:]</code>, so the copy has to allow overlaps.
+	 */
+	protected def CodeFragment generateContiguousCopyStatements(EObject context, CodeFragment i, CodeWithContext left, CodeWithContext right, CodeFragment count, long stride, CodeFragment elementwiseCopy) {
+		val contiguous = cf('''«i»_contiguous''');
 		return cf('''
+			{
+				bool «contiguous» = «count» > 0;
+				for(size_t «i» = 0; «contiguous» && «i» < «count»; ++«i») {
+					«contiguous» = «left.code»[«i»].capacity == «stride» && «right.code»[«i»].capacity == «stride»
+						&& «left.code»[«i»].data == «left.code»[0].data + «i» * «stride»
+						&& «right.code»[«i»].data == «right.code»[0].data + «i» * «stride»;
+				}
+				if(«contiguous») {
+					memmove(«left.code»[0].data, «right.code»[0].data, sizeof(«getDataTypeCCode(context, left.type)») * «stride» * «count»);
+					for(size_t «i» = 0; «i» < «count»; ++«i») {
+						«left.code»[«i»].length = «right.code»[«i»].length;
+					}
+				}
+				else {
+					«elementwiseCopy»
+				}
+			}
+		''').addHeader("string.h", true).addHeader("stdbool.h", true)
+	}
+	
+	override generateBulkCopyStatements(EObject context, CodeFragment i, CodeWithContext left, CodeWithContext right, CodeFragment count) {
+		val elementwiseCopy = cf('''
 			for(size_t «i» = 0; «i» < «count»; ++«i») {
 				«statementGenerator.generateBulkCopyStatements(
 					context,
@@ -432,7 +515,13 @@ class ArrayGenerator extends AbstractTypeGenerator {
 				)»
 				«left.code»[«i»].length = «right.code»[«i»].length;
 			}
-		''')
+		''');
+		val leftDataType = left.type.dataType;
+		val stride = getContiguousStride(left.type, right.type);
+		if(stride !== null && !typeUtils.isGeneratedType(context, leftDataType) && leftDataType.name == right.type.dataType.name) {
+			return generateContiguousCopyStatements(context, i, left, right, count, stride, elementwiseCopy);
+		}
+		return elementwiseCopy;
 	}
 	
 	override protected getRelevantTypeParametersForHeaderName(Iterable<AbstractType> allTypeArguments) {
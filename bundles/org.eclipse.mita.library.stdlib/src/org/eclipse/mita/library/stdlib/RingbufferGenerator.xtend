@@ -22,6 +22,8 @@ import org.eclipse.mita.base.typesystem.types.TypeConstructorType
 import org.eclipse.mita.program.EventHandlerDeclaration
 import org.eclipse.mita.program.FunctionDefinition
 import org.eclipse.mita.program.NewInstanceExpression
+import org.eclipse.mita.program.ProgramPackage
+import org.eclipse.mita.program.VariableDeclaration
 import org.eclipse.mita.program.generator.AbstractFunctionGenerator
 import org.eclipse.mita.program.generator.AbstractTypeGenerator
 import org.eclipse.mita.program.generator.CodeFragment
@@ -53,6 +55,47 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 		return ringbufferTypeInstance;
 	}
 	
+	/**
+	 * Ringbuffers whose capacity is statically known to be a power of two wrap their indices with bit masks instead of comparisons.
+	 * Both variants keep indices in [0, 2*capacity), so code which doesn't know the capacity can still operate on either.
+	 * 
+	 * The size of a ringbuffer type isn't enforced for parameters, so a function taking <code>ringbuffer<T, 64></code> may operate on a ringbuffer of capacity 32.
+	 * Only variables declaring their own ringbuffer have the capacity of their type at runtime,
+	 * so only references to them use bit masks.
+	 * 
+	 * @returns the capacity of the ringbuffer rbRef refers to if it is known to be a power of two, null otherwise.
+	 */
+	static def Long getPowerOfTwoCapacity(Expression rbRef) {
+		if(rbRef instanceof ElementReferenceExpression) {
+			val reference = rbRef.reference;
+			// subclasses of VariableDeclaration (parameters of event handlers, loop iterators, ...) may hold ringbuffers allocated elsewhere
+			if(reference instanceof VariableDeclaration && reference.eClass == ProgramPackage.Literals.VARIABLE_DECLARATION) {
+				val initialization = (reference as VariableDeclaration).initialization;
+				if(initialization === null || initialization instanceof NewInstanceExpression) {
+					return getPowerOfTwoCapacity(BaseUtils.getType(rbRef));
+				}
+			}
+		}
+		return null;
+	}
+	
+	protected static def Long getPowerOfTwoCapacity(AbstractType type) {
+		val capacity = type?.inferredSize?.eval;
+		return if(capacity !== null && Long.bitCount(capacity) == 1) capacity else null;
+	}
+	
+	static def CharSequence slotCode(Object rb, CharSequence index, Long powerOfTwoCapacity) {
+		return if(powerOfTwoCapacity !== null) '''(«index» & «powerOfTwoCapacity - 1»u)''' else '''ringbuffer_mask(«index», «rb».capacity)''';
+	}
+	
+	static def CharSequence incrementCode(Object rb, CharSequence index, Long powerOfTwoCapacity) {
+		return if(powerOfTwoCapacity !== null) '''((«index» + 1) & «2 * powerOfTwoCapacity - 1»u)''' else '''ringbuffer_increment(«index», «rb».capacity)''';
+	}
+	
+	static def CharSequence countCode(Object rb, CharSequence read, CharSequence write, Long powerOfTwoCapacity) {
+		return if(powerOfTwoCapacity !== null) '''((«write» - «read») & «2 * powerOfTwoCapacity - 1»u)''' else '''ringbuffer_count(«read», «write», «rb».capacity)''';
+	}
+	
 	
 	override CodeFragment generateHeader(EObject context, AbstractType type) {
 		codeFragmentProvider.create('''typedef struct «typeGenerator.code(context, type)» «typeGenerator.code(context, type)»;''')
@@ -64,7 +107,7 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 				struct «typeGenerator.code(context, type)» {
 					«typeGenerator.code(context, type.typeArguments.tail.head)»* data;
 					uint32_t read;
-					uint32_t length;
+					uint32_t write;
 					uint32_t capacity;
 				};
 			''').addHeader('inttypes.h', true);
@@ -73,14 +116,24 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 	
 	override generateHeader() {
 		return codeFragmentProvider.create('''
+		// read is only written by the consumer and write only by the producer, so a single producer and a single consumer may run concurrently
+		#if defined(__GNUC__)
+		#define RINGBUFFER_LOAD(index) __atomic_load_n(&(index), __ATOMIC_ACQUIRE)
+		#define RINGBUFFER_STORE(index, value) __atomic_store_n(&(index), (value), __ATOMIC_RELEASE)
+		#else
+		#define RINGBUFFER_LOAD(index) (index)
+		#define RINGBUFFER_STORE(index, value) ((index) = (value))
+		#endif
+		
 		uint32_t ringbuffer_mask(uint32_t i, uint32_t len);
 		uint32_t ringbuffer_increment(uint32_t i, uint32_t len);
+		uint32_t ringbuffer_count(uint32_t read, uint32_t write, uint32_t len);
 		''')
 	}
 	
 	override generateImplementation() {
 		return codeFragmentProvider.create('''
-			//assumes that you won't be overflowing by more than len
+			// read and write indices run from 0 to 2*len, so a full ringbuffer can be told apart from an empty one
 			uint32_t ringbuffer_mask(uint32_t i, uint32_t len) {
 				if(i >= len) {
 					return i - len;
@@ -89,7 +142,17 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 			}
 			
 			uint32_t ringbuffer_increment(uint32_t i, uint32_t len) {
-				return ringbuffer_mask(i + 1, len);
+				if(i + 1 >= 2 * len) {
+					return 0;
+				}
+				return i + 1;
+			}
+			
+			uint32_t ringbuffer_count(uint32_t read, uint32_t write, uint32_t len) {
+				if(write >= read) {
+					return write - read;
+				}
+				return write + 2 * len - read;
 			}
 		''').addHeader('inttypes.h', true);
 	}
@@ -111,7 +174,7 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 				«varName» = («typeGenerator.code(context, type)») {
 					.data = «bufferName»,
 					.read = 0,
-					.length = 0,
+					.write = 0,
 					.capacity = «size»
 				};
 				«statementGenerator.generateBulkAssignment(
@@ -172,7 +235,8 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 		for(size_t «i» = 0; «i» < «count»; ++«i») {
 			«left.code»[«i»] = («typeGenerator.code(context, type)») {
 				.data = &«cVariablePrefix»_buf[«i»*«size»],
-				.length = 0,
+				.read = 0,
+				.write = 0,
 				.capacity = «size»
 			};
 		}
@@ -197,13 +261,20 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 		override generate(CodeWithContext resultVariable, ElementReferenceExpression functionCall) {
 			val rbRef = ExpressionUtils.getArgumentValue(functionCall.reference as Operation, functionCall, "self");
 			val value = ExpressionUtils.getArgumentValue(functionCall.reference as Operation, functionCall, "element").code;
-			return generate(functionCall, new CodeWithContext(BaseUtils.getType(rbRef), Optional.empty, codeFragmentProvider.create('''«rbRef.code»''')), value);
+			return generate(functionCall, new CodeWithContext(BaseUtils.getType(rbRef), Optional.empty, codeFragmentProvider.create('''«rbRef.code»''')), value, RingbufferGenerator.getPowerOfTwoCapacity(rbRef));
 		}
 		
 		def generate(EObject context, CodeWithContext rbRef, IGeneratorNode value) {
+			return generate(context, rbRef, value, null);
+		}
+		
+		/**
+		 * @param capacity the capacity of rbRef if it is known to be a power of two at runtime, see {@link RingbufferGenerator#getPowerOfTwoCapacity(Expression)}.
+		 */
+		def generate(EObject context, CodeWithContext rbRef, IGeneratorNode value, Long capacity) {
 			val innerType = (rbRef.type as TypeConstructorType).typeArguments.get(1)
 			return codeFragmentProvider.create('''
-				if(«rbRef.code».length >= «rbRef.code».capacity) {
+				if(«RingbufferGenerator.countCode(rbRef.code, '''RINGBUFFER_LOAD(«rbRef.code».read)''', '''«rbRef.code».write''', capacity)» >= «rbRef.code».capacity) {
 					«generateExceptionHandler(context, "EXCEPTION_INDEXOUTOFBOUNDSEXCEPTION")»
 				}
 				«statementGenerator.initializationCode(
@@ -212,7 +283,7 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 					new CodeWithContext(
 						innerType, 
 						Optional.empty, 
-						codeFragmentProvider.create('''«rbRef.code».data[ringbuffer_mask(«rbRef.code».read + «rbRef.code».length, «rbRef.code».capacity)]''')),
+						codeFragmentProvider.create('''«rbRef.code».data[«RingbufferGenerator.slotCode(rbRef.code, '''«rbRef.code».write''', capacity)»]''')),
 					AssignmentOperator.ASSIGN, 
 					new CodeWithContext(
 						innerType, 
@@ -221,7 +292,7 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 					), 
 					true
 				)»
-				++«rbRef.code».length;
+				RINGBUFFER_STORE(«rbRef.code».write, «RingbufferGenerator.incrementCode(rbRef.code, '''«rbRef.code».write''', capacity)»);
 			''').addHeader('''«context.getIncludePathForTypeImplementation(rbRef.type)»''', false);
 		}
 	}
@@ -237,14 +308,15 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 		
 		override generate(CodeWithContext resultVariable, ElementReferenceExpression functionCall) {
 			val rbRef = functionCall.arguments.head.value;
-			val rbRefCode = rbRef.code;
+			// a code fragment, so it can be embedded in the index expressions below
+			val rbRefCode = codeFragmentProvider.create('''«rbRef.code»''');
 			val innerType = resultVariable?.type;
+			val capacity = RingbufferGenerator.getPowerOfTwoCapacity(rbRef);
 			
 			return codeFragmentProvider.create('''
-				if(«rbRefCode».length == 0) {
+				if(«rbRefCode».read == RINGBUFFER_LOAD(«rbRefCode».write)) {
 					«generateExceptionHandler(functionCall, "EXCEPTION_INDEXOUTOFBOUNDSEXCEPTION")»
 				}
-				--«rbRefCode».length;
 				«IF resultVariable !== null»
 «««				copy data 
 				«statementGenerator.initializationCode(
@@ -252,11 +324,11 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 					resultVariable.code, 
 					resultVariable, 
 					AssignmentOperator.ASSIGN, 
-					new CodeWithContext(innerType, Optional.empty, codeFragmentProvider.create('''«rbRefCode».data[«rbRefCode».read]''')), 
+					new CodeWithContext(innerType, Optional.empty, codeFragmentProvider.create('''«rbRefCode».data[«RingbufferGenerator.slotCode(rbRefCode, '''«rbRefCode».read''', capacity)»]''')), 
 					true
 				)»
 				«ENDIF»
-				«rbRefCode».read = ringbuffer_increment(«rbRefCode».read, «rbRefCode».capacity);
+				RINGBUFFER_STORE(«rbRefCode».read, «RingbufferGenerator.incrementCode(rbRefCode, '''«rbRefCode».read''', capacity)»);
 			''').addHeader('''«functionCall.getIncludePathForTypeImplementation(rbRef.type)»''', false);
 		}		
 	}
@@ -304,10 +376,12 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 		
 		override generate(CodeWithContext resultVariable, ElementReferenceExpression functionCall) {
 			val rbRef = functionCall.arguments.head;
-			val rbRefCode = rbRef.code;
+			// a code fragment, so it can be embedded in the index expressions below
+			val rbRefCode = codeFragmentProvider.create('''«rbRef.code»''');
 			val innerType = resultVariable?.type;
+			val capacity = RingbufferGenerator.getPowerOfTwoCapacity(rbRef.value);
 			return codeFragmentProvider.create('''
-				if(«rbRefCode».length == 0) {
+				if(«rbRefCode».read == RINGBUFFER_LOAD(«rbRefCode».write)) {
 					«generateExceptionHandler(functionCall, "EXCEPTION_INDEXOUTOFBOUNDSEXCEPTION")»
 				}
 				«IF resultVariable !== null»
@@ -316,7 +390,7 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 					resultVariable?.code, 
 					resultVariable, 
 					AssignmentOperator.ASSIGN, 
-					new CodeWithContext(innerType, Optional.empty, codeFragmentProvider.create('''«rbRefCode».data[«rbRefCode».read]''')), 
+					new CodeWithContext(innerType, Optional.empty, codeFragmentProvider.create('''«rbRefCode».data[«RingbufferGenerator.slotCode(rbRefCode, '''«rbRefCode».read''', capacity)»]''')), 
 					true
 				)»
 				«ENDIF»
@@ -332,8 +406,10 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 		// no need to recurse, empty has type uint32
 		override generate(CodeWithContext resultVariable, ElementReferenceExpression functionCall) {
 			val rbRef = functionCall.arguments.head;
+			val rbRefCode = codeFragmentProvider.create('''«rbRef.code»''');
+			val capacity = RingbufferGenerator.getPowerOfTwoCapacity(rbRef.value);
 			return codeFragmentProvider.create('''
-				«IF resultVariable !== null»«resultVariable.code» = «ENDIF»«rbRef.code».length;
+				«IF resultVariable !== null»«resultVariable.code» = «ENDIF»«RingbufferGenerator.countCode(rbRefCode, '''RINGBUFFER_LOAD(«rbRefCode».read)''', '''RINGBUFFER_LOAD(«rbRefCode».write)''', capacity)»;
 			''').addHeader('''«functionCall.getIncludePathForTypeImplementation(rbRef.type)»''', false);
 		}		
 	}
@@ -347,7 +423,7 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 		override generate(CodeWithContext resultVariable, ElementReferenceExpression functionCall) {
 			val rbRef = functionCall.arguments.head;
 			return codeFragmentProvider.create('''
-				«IF resultVariable !== null»«resultVariable.code» = «ENDIF»«rbRef.code».length == 0;
+				«IF resultVariable !== null»«resultVariable.code» = «ENDIF»RINGBUFFER_LOAD(«rbRef.code».read) == RINGBUFFER_LOAD(«rbRef.code».write);
 			''').addHeader('''«functionCall.getIncludePathForTypeImplementation(rbRef.type)»''', false);
 		}		
 	}
@@ -360,8 +436,10 @@ class RingbufferGenerator extends AbstractTypeGenerator {
 		// no need to recurse, empty has type bool
 		override generate(CodeWithContext resultVariable, ElementReferenceExpression functionCall) {
 			val rbRef = functionCall.arguments.head;
+			val rbRefCode = codeFragmentProvider.create('''«rbRef.code»''');
+			val capacity = RingbufferGenerator.getPowerOfTwoCapacity(rbRef.value);
 			return codeFragmentProvider.create('''
-				«IF resultVariable !== null»«resultVariable.code» = «ENDIF»«rbRef.code».length == «rbRef.code».capacity;
+				«IF resultVariable !== null»«resultVariable.code» = «ENDIF»«RingbufferGenerator.countCode(rbRefCode, '''RINGBUFFER_LOAD(«rbRefCode».read)''', '''RINGBUFFER_LOAD(«rbRefCode».write)''', capacity)» == «rbRefCode».capacity;
 			''').addHeader('''«functionCall.getIncludePathForTypeImplementation(rbRef.type)»''', false);
 		}		
 	}	
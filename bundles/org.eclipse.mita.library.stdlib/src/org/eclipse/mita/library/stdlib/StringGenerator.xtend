@@ -59,12 +59,17 @@ class StringGenerator extends ArrayGenerator {
 	}
 
 	override generateBulkCopyStatements(EObject context, CodeFragment i, CodeWithContext left, CodeWithContext right, CodeFragment count) {
-		return cf('''
+		val elementwiseCopy = cf('''
 			for(size_t «i» = 0; «i» < «count»; ++«i») {
 				memcpy(«left.code»[«i»].data, «right.code»[«i»].data, sizeof(char) * «right.code»[«i»].length);
 				«left.code»[«i»].length = «right.code»[«i»].length;
 			}
-		''')
+		''');
+		val stride = getContiguousStride(left.type, right.type);
+		if(stride !== null) {
+			return generateContiguousCopyStatements(context, i, left, right, count, stride, elementwiseCopy);
+		}
+		return elementwiseCopy;
 	}
 	
 	override CodeFragment copyContents(EObject context, CodeFragment i, CodeWithContext left, CodeWithContext right, CodeFragment count) {
@@ -89,8 +94,12 @@ class StringGenerator extends ArrayGenerator {
 		if(operator != AssignmentOperator.ASSIGN) {
 			return null;
 		}
-		val bufferName = cf('''«cVariablePrefix»_temp_«context.occurrence»''');
 		val size = left.type.inferredSize?.eval
+		val formattedSize = right?.type?.inferredSize?.eval
+		if(size !== null && formattedSize !== null && formattedSize <= size && lit.content.forall[formatter !== null]) {
+			return generateDirectFormatting(context, cVariablePrefix, left, lit);
+		}
+		val bufferName = cf('''«cVariablePrefix»_temp_«context.occurrence»''');
 		// need to allocate size+1 since snprintf always writes a zero byte at the end.
 		return cf('''
 			«getDataTypeCCode(context, left.type)» «bufferName»[«size + 1»] = {0};
@@ -103,6 +112,55 @@ class StringGenerator extends ArrayGenerator {
 		''').addHeader("string.h", true)
 	}
 
+	/**
+	 * Formats lit straight into left, which must be able to hold the longest string lit can produce.
+	 */
+	protected def CodeFragment generateDirectFormatting(EObject context, CodeFragment cVariablePrefix, CodeWithContext left, InterpolatedStringLiteral lit) {
+		val end = cf('''«cVariablePrefix»_end_«context.occurrence»''');
+		val texts = lit.originalTexts;
+		return cf('''
+			char* «end» = «left.code».data;
+			«FOR i : 0 ..< texts.size»
+				«IF !texts.get(i).empty»
+					«end» = string_format_chars(«end», "«texts.get(i)»", sizeof("«texts.get(i)»") - 1);
+				«ENDIF»
+				«IF i < lit.content.size»
+					«val sub = lit.content.get(i)»
+					«IF sub.formatter == "string_format_chars"»
+						«end» = string_format_chars(«end», «sub.code».data, «sub.code».length);
+					«ELSE»
+						«end» = «sub.formatter»(«end», «sub.code»);
+					«ENDIF»
+				«ENDIF»
+			«ENDFOR»
+			«left.code».length = «end» - «left.code».data;
+		''').addHeader('''«context.getIncludePathForTypeImplementation(left.type)»''', false)
+	}
+	
+	/**
+	 * @returns the C function formatting sub into a string without going through snprintf's format parser, or null if there is none.
+	 */
+	protected def String getFormatter(Expression sub) {
+		val type = BaseUtils.getType(sub);
+		return switch(type?.name) {
+			case 'uint32',
+			case 'uint16',
+			case 'uint8',
+			case 'bool': 'string_format_uint32'
+			case 'int32',
+			case 'int16',
+			case 'int8',
+			case 'xint32',
+			case 'xint16',
+			case 'xint8': 'string_format_int32'
+			case 'f32',
+			case 'f64': 'string_format_double'
+			// string literals don't have a length to copy
+			case 'string': if(sub.castOrNull(PrimitiveValueExpression)?.value?.castOrNull(StringLiteral) === null) 'string_format_chars'
+			default: null
+		}
+	}
+	
 	override CodeFragment generateLength(CodeFragment temporaryBufferName, ValueRange valRange, CodeWithContext obj) {
 		return codeFragmentProvider.create('''«doGenerateLength(temporaryBufferName, valRange, obj, obj.obj.orElse(null)).noNewline»''');
 	}
@@ -0,0 +1,45 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import com.google.inject.Guice
+import com.google.inject.Injector
+import com.google.inject.util.Modules
+import org.eclipse.mita.base.TypeDslStandaloneSetup
+import org.eclipse.mita.cli.loader.StandaloneModule
+import org.eclipse.mita.platform.PlatformDSLRuntimeModule
+import org.eclipse.mita.platform.PlatformDSLStandaloneSetup
+import org.eclipse.mita.program.ProgramDslRuntimeModule
+import org.eclipse.mita.program.ProgramDslStandaloneSetup
+
+/**
+ * Sets up the languages like the command line compiler does (see {@link org.eclipse.mita.cli.Main}).
+ * EMF registries are global, so all benchmarks of a JVM share one injector.
+ */
+class BenchmarkInjector {
+	static Injector injector;
+
+	static synchronized def Injector get() {
+		if(injector === null) {
+			TypeDslStandaloneSetup.doSetup();
+			
+			injector = Guice.createInjector(Modules.override(new ProgramDslRuntimeModule()).with(new StandaloneModule()));
+			new ProgramDslStandaloneSetup().register(injector);
+			
+			val platformInjector = Guice.createInjector(Modules.override(new PlatformDSLRuntimeModule()).with(new StandaloneModule()));
+			new PlatformDSLStandaloneSetup().register(platformInjector);
+		}
+		return injector;
+	}
+}
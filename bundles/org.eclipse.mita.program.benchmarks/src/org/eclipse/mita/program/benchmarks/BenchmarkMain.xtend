@@ -0,0 +1,45 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import org.openjdk.jmh.results.format.ResultFormatType
+import org.openjdk.jmh.runner.Runner
+import org.openjdk.jmh.runner.options.CommandLineOptions
+import org.openjdk.jmh.runner.options.OptionsBuilder
+
+/**
+ * Runs the benchmarks selected by the JMH command line in args.
+ * Unless -rf or -rff are given, results are written as JSON to {@link #DEFAULT_RESULT_FILE} so they can be compared between releases.
+ */
+class BenchmarkMain {
+	public static final String DEFAULT_RESULT_FILE = "mita-benchmarks.json";
+
+	def static void main(String[] args) {
+		val commandLineOptions = new CommandLineOptions(args);
+		if(commandLineOptions.shouldHelp) {
+			commandLineOptions.showHelp();
+			return;
+		}
+		if(commandLineOptions.shouldList) {
+			new Runner(commandLineOptions).list();
+			return;
+		}
+		val options = new OptionsBuilder()
+			.parent(commandLineOptions)
+			.resultFormat(commandLineOptions.resultFormat.orElse(ResultFormatType.JSON))
+			.result(commandLineOptions.result.orElse(DEFAULT_RESULT_FILE))
+			.build();
+		new Runner(options).run();
+	}
+}
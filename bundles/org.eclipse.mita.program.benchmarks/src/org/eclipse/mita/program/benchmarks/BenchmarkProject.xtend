@@ -0,0 +1,96 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import java.nio.file.Path
+import java.util.ArrayList
+import org.eclipse.mita.base.scoping.BaseResourceDescriptionStrategy
+import org.eclipse.mita.base.typesystem.infra.MitaBaseResource
+import org.eclipse.mita.base.typesystem.serialization.SerializationAdapter
+import org.eclipse.mita.base.typesystem.solver.ConstraintSystem
+import org.eclipse.mita.cli.commands.CompileCommand
+import org.eclipse.mita.program.Program
+import org.eclipse.xtext.generator.IFileSystemAccess2
+import org.eclipse.xtext.resource.XtextResource
+import org.eclipse.xtext.resource.XtextResourceSet
+import org.eclipse.xtext.scoping.IScopeProvider
+
+/**
+ * A corpus program (see {@link ProgramCorpus}) loaded together with the libraries on the classpath, like <code>mita compile</code> loads a project.
+ */
+class BenchmarkProject extends CompileCommand {
+	
+	new(Path projectPath) {
+		this.projectPath = projectPath.toString;
+		// benchmarks which measure precomputing constraints do so themselves
+		this.jobs = 1;
+	}
+	
+	static def BenchmarkProject load(String programName) {
+		return load(programName, 1);
+	}
+	
+	/**
+	 * Loads a program split into compilationUnits files, see {@link ProgramCorpus#writeProject(String, int)}.
+	 */
+	static def BenchmarkProject load(String programName, int compilationUnits) {
+		val result = new BenchmarkProject(ProgramCorpus.writeProject(programName, compilationUnits));
+		BenchmarkInjector.get().injectMembers(result);
+		result.loadResourceSet();
+		return result;
+	}
+	
+	def XtextResourceSet getResourceSet() {
+		return resourceSet;
+	}
+	
+	def MitaBaseResource getProgramResource() {
+		return projectResources.filter(MitaBaseResource).head;
+	}
+	
+	def Program getProgram() {
+		return programResource.contents.filter(Program).head;
+	}
+	
+	/**
+	 * Solvers stop as soon as the cancel indicator of the solved resource is canceled,
+	 * which collectAndSolveTypes does when it finishes. So each solve outside of collectAndSolveTypes needs a fresh one.
+	 */
+	def void renewCancelIndicator() {
+		programResource.mkCancelIndicator();
+	}
+	
+	def void generateInto(IFileSystemAccess2 fileSystemAccess) {
+		generate(fileSystemAccess);
+	}
+	
+	/**
+	 * @returns the constraints of all loaded resources combined with resolved proxies, which is what the program resource solves (see {@link MitaBaseResource#collectAndSolveTypes}).
+	 */
+	def ConstraintSystem prepareConstraintSystem(SerializationAdapter serializationAdapter, IScopeProvider scopeProvider) {
+		val systems = new ArrayList<ConstraintSystem>();
+		var offset = 0;
+		// creating descriptions might load resources
+		for(resource : resourceSet.resources.filter(XtextResource).toList) {
+			val description = resource.resourceServiceProvider.resourceDescriptionManager.getResourceDescription(resource);
+			val constraints = description.exportedObjects.map[getUserData(BaseResourceDescriptionStrategy.CONSTRAINTS)].filterNull.toList;
+			for(json : constraints) {
+				val system = serializationAdapter.deserializeConstraintSystemFromJSON(json, [resourceSet.getEObject(it, true)]).modifyNames(offset);
+				systems += system;
+				offset += system.instanceCount;
+			}
+		}
+		return ConstraintSystem.combine(systems).replaceProxies(programResource, scopeProvider);
+	}
+}
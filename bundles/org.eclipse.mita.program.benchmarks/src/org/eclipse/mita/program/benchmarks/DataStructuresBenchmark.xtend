@@ -0,0 +1,116 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import java.util.List
+import java.util.concurrent.TimeUnit
+import org.eclipse.mita.base.typesystem.infra.Graph
+import org.eclipse.mita.base.typesystem.solver.Substitution
+import org.eclipse.mita.base.typesystem.types.AtomicType
+import org.eclipse.mita.base.typesystem.types.TypeVariable
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Measures the data structures the solver copies and walks most: {@link Graph} and {@link Substitution}.
+ * Both are filled synthetically, independent of any program.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+class DataStructuresBenchmark {
+	// the number of units applied in sequence, like the combine chain of MostGenericUnifierComputer
+	static final int CHAIN_LENGTH = 100;
+	
+	@Param(#["100", "1000", "10000"])
+	public int size;
+	
+	protected Graph<Integer> graph;
+	protected Substitution substitution;
+	protected List<Substitution> chain;
+	
+	@Setup
+	def void setup() {
+		graph = createGraph();
+		
+		val substitutionProvider = BenchmarkInjector.get().getProvider(Substitution);
+		val int32 = new AtomicType(null, "int32");
+		// every other variable is bound to the next one, so applying a substitution has something to replace
+		substitution = substitutionProvider.get();
+		for(i : 0 ..< size) {
+			val tv = new TypeVariable(null, i);
+			substitution.add(tv, if(i % 2 == 0) new TypeVariable(null, i + 1) else int32);
+		}
+		chain = (0 ..< CHAIN_LENGTH).map[
+			substitutionProvider.get() => [sub |
+				sub.add(new TypeVariable(null, size + it), int32)
+			]
+		].toList;
+	}
+	
+	@Benchmark
+	def Graph<Integer> createGraph() {
+		val result = new Graph<Integer>();
+		val nodes = newIntArrayOfSize(size);
+		for(i : 0 ..< size) {
+			nodes.set(i, result.addNode(i));
+		}
+		for(i : 0 ..< size) {
+			result.addEdge(nodes.get(i), nodes.get((i + 1) % size));
+			result.addEdge(nodes.get(i), nodes.get((i * 7) % size));
+		}
+		return result;
+	}
+	
+	@Benchmark
+	def Graph<Integer> copyGraphAndAddEdge() {
+		val result = new Graph<Integer>();
+		graph.copyTo(result);
+		result.addEdge(0, size - 1);
+		return result;
+	}
+	
+	@Benchmark
+	def Iterable<Integer> successors() {
+		return graph.getSuccessors(0);
+	}
+	
+	@Benchmark
+	def Substitution copySubstitutionAndAdd() {
+		val result = new Substitution(substitution);
+		result.add(new TypeVariable(null, size), new AtomicType(null, "int32"));
+		return result;
+	}
+	
+	@Benchmark
+	def Substitution applyChain() {
+		var result = new Substitution(substitution);
+		for(sub : chain) {
+			result = sub.apply(result);
+		}
+		return result;
+	}
+}
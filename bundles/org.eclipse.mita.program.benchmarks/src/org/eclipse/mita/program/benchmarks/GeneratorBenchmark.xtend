@@ -0,0 +1,56 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import java.util.concurrent.TimeUnit
+import org.eclipse.xtext.generator.InMemoryFileSystemAccess
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Measures generating C code for a loaded and typed program, like <code>mita compile</code> does after loading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+class GeneratorBenchmark {
+	@Param(#["synthetic-10", "synthetic-100", "synthetic-500", "strings", "arrays", "sumtypes"])
+	public String program;
+	
+	protected BenchmarkProject project;
+	
+	@Setup
+	def void setup() {
+		project = BenchmarkProject.load(program);
+	}
+	
+	@Benchmark
+	def InMemoryFileSystemAccess generate() {
+		val fileSystemAccess = new InMemoryFileSystemAccess();
+		project.generateInto(fileSystemAccess);
+		return fileSystemAccess;
+	}
+}
@@ -0,0 +1,85 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.TimeUnit
+import org.eclipse.mita.base.scoping.BaseResourceDescriptionStrategy
+import org.eclipse.xtext.resource.IDefaultResourceDescriptionStrategy
+import org.eclipse.xtext.resource.XtextResource
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Measures computing the constraints of all loaded program and library resources with 1 to N threads, 
+ * like <code>mita compile --jobs</code> does before resolving the project. The program is split into several compilation units.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+class PrecomputeConstraintsBenchmark {
+	/**
+	 * Constraints are computed per resource, so the program is split into more files than the largest number of jobs.
+	 */
+	static val COMPILATION_UNITS = 16;
+	
+	@Param(#["synthetic-100", "synthetic-500"])
+	public String program;
+	
+	@Param(#["1", "2", "4", "8"])
+	public int jobs;
+	
+	protected BenchmarkProject project;
+	protected BaseResourceDescriptionStrategy strategy;
+	protected Iterable<XtextResource> resources;
+	protected ForkJoinPool pool;
+	
+	@Setup
+	def void setup() {
+		project = BenchmarkProject.load(program, COMPILATION_UNITS);
+		// platform resources are described by another language, so we only measure program resources
+		resources = project.resourceSet.resources.filter(XtextResource).filter[languageName == project.programResource.languageName].toList;
+		strategy = project.programResource.resourceServiceProvider.get(IDefaultResourceDescriptionStrategy) as BaseResourceDescriptionStrategy;
+		pool = new ForkJoinPool(jobs);
+	}
+	
+	@Setup(Level.Invocation)
+	def void discardPrecomputedConstraints() {
+		resources.flatMap[contents].forEach[eAdapters.removeIf[it instanceof BaseResourceDescriptionStrategy.PrecomputedConstraints]];
+	}
+	
+	@TearDown
+	def void tearDown() {
+		pool.shutdown();
+	}
+	
+	@Benchmark
+	def void precomputeConstraints() {
+		strategy.precomputeConstraints(resources, pool);
+	}
+}
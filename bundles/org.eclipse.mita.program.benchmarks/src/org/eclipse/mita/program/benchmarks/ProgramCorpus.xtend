@@ -0,0 +1,349 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * Programs the benchmarks run on, addressed by name:
+ * <ul>
+ * <li><code>synthetic-N</code> is a generated program with N units, each a struct and three functions calling each other and the previous unit.
+ * It can be split into several compilation units (see {@link #writeProject(String, int)}).</li>
+ * <li><code>coercions-N</code> is a generated program with N functions mixing integer types, so most of its constraints are numeric coercions.</li>
+ * <li>the other names are programs of the x86 runtime tests.</li>
+ * </ul>
+ */
+class ProgramCorpus {
+	public static final String SYNTHETIC_PREFIX = "synthetic-";
+	public static final String COERCIONS_PREFIX = "coercions-";
+	
+	static def String get(String name) {
+		if(name.startsWith(SYNTHETIC_PREFIX)) {
+			return synthetic(Integer.parseInt(name.substring(SYNTHETIC_PREFIX.length)));
+		}
+		if(name.startsWith(COERCIONS_PREFIX)) {
+			return coercions(Integer.parseInt(name.substring(COERCIONS_PREFIX.length)));
+		}
+		val program = realPrograms.get(name);
+		if(program === null) {
+			throw new IllegalArgumentException("Unknown program: " + name);
+		}
+		return program;
+	}
+	
+	/**
+	 * @returns a new project directory containing the program called name as application.mita.
+	 */
+	static def Path writeProject(String name) {
+		return writeProject(name, 1);
+	}
+	
+	/**
+	 * @returns a new project directory containing the program called name split into compilationUnits files of the same package.
+	 * Only synthetic programs can be split.
+	 */
+	static def Path writeProject(String name, int compilationUnits) {
+		val projectPath = Files.createTempDirectory("mita-benchmark-" + name);
+		if(compilationUnits <= 1) {
+			Files.writeString(projectPath.resolve("application.mita"), get(name));
+			return projectPath;
+		}
+		if(!name.startsWith(SYNTHETIC_PREFIX)) {
+			throw new IllegalArgumentException("Only synthetic programs can be split into compilation units: " + name);
+		}
+		val units = Integer.parseInt(name.substring(SYNTHETIC_PREFIX.length));
+		for(file : 0 ..< compilationUnits) {
+			val first = units * file / compilationUnits;
+			val last = units * (file + 1) / compilationUnits;
+			// the event handler calls every unit, so it goes into the last file
+			Files.writeString(projectPath.resolve("application" + file + ".mita"), synthetic(first, last, units, file == compilationUnits - 1));
+		}
+		return projectPath;
+	}
+	
+	static def String synthetic(int units) {
+		return synthetic(0, units, units, true);
+	}
+	
+	/**
+	 * @returns the units [first, last) of the synthetic program with the given number of units, and its event handler if withHandler is set.
+	 */
+	protected static def String synthetic(int first, int last, int units, boolean withHandler) '''
+		package bench;
+		
+		import platforms.x86;
+		
+		«FOR i : first ..< last»
+		struct point«i» {
+			var x: int32;
+			var y: int32;
+		}
+		
+		fn scale«i»(p: point«i», factor: int32): point«i» {
+			return point«i»(x = p.x * factor, y = p.y * factor);
+		}
+		
+		fn sum«i»(a: array<int32, ?>): int32 {
+			var result: int32 = 0;
+			for(var j = 0; j < a.length(); j++) {
+				result += a[j];
+			}
+			return result;
+		}
+		
+		fn step«i»(x: int32): int32 {
+			let p = scale«i»(point«i»(x = x, y = «i»), 2);
+			let values = [p.x, p.y, x];
+			var total = sum«i»(values);
+			if(total > 1000) {
+				total = total - «i»;
+			}
+			«IF i > 0»
+			total += step«i - 1»(x);
+			«ENDIF»
+			println(`step «i»: ${total}`);
+			return total;
+		}
+		
+		«ENDFOR»
+		«IF withHandler»
+		every 1 second {
+			var total: int32 = 0;
+			«FOR i : 0 ..< units»
+			total += step«i»(«i»);
+			«ENDFOR»
+			println(`${total}`);
+		}
+		«ENDIF»
+	'''
+	
+	static def String coercions(int functions) '''
+		package bench;
+		
+		import platforms.x86;
+		
+		«FOR i : 0 ..< functions»
+		fn widen«i»(a: int8, b: uint8, c: int16): int32 {
+			let x: int16 = a;
+			let y: uint16 = b;
+			let z: int32 = x + c;
+			var w: uint32 = y;
+			w += b;
+			var total: int32 = z + y;
+			total += a * b;
+			if(w > «i») {
+				total -= c * a;
+			}
+			return total;
+		}
+		
+		«ENDFOR»
+		every 1 second {
+			var total: int32 = 0;
+			«FOR i : 0 ..< functions»
+			total += widen«i»(«i % 100», «i % 200», «i»);
+			«ENDFOR»
+			println(`${total}`);
+		}
+	'''
+	
+	protected static val realPrograms = #{
+		'strings' -> '''
+			package my.pkg;
+			
+			import platforms.x86;
+			
+			var x = 0;
+			
+			every x86.startup {
+				println("1");
+				let a = "2";
+				println(a);
+				let b = "3";
+				println(`${b}4`);
+				// test that last print didn't mutate b
+				println(`${b}`);
+				var c = "5";
+				c += "6";
+				println(c); 
+				var d = new string<100>();
+				d += "7";
+				println(d);
+				for(var i = 8; i < 12; i++) {
+					d += `${i}`;
+				}
+				println(d);
+				exit(0); 
+			}
+			
+			every 1 second {
+				// do nothing, this is just to generate time functions
+			}
+			
+			native unchecked fn exit(status: int16): void header "stdlib.h";
+		''',
+		'arrays' -> '''
+			package my.pkg;
+			
+			import platforms.x86;
+			
+			native unchecked fn exit(status: int16): void header "stdlib.h";
+			
+			every x86.startup {
+				let ar = new array<int8, 100>();
+				try {
+					let a0 = foo0();
+					printarray(a0);
+				}
+				catch(InvalidRangeException) {
+					println("error a0");
+				}
+				try {
+					let a2 = foo2();
+					printarray(a2);
+				}
+				catch(InvalidRangeException) {
+					println("error a2");
+				}
+				try {
+					let a4 = foo4();
+					printarray(a4);
+				}
+				catch(InvalidRangeException) {
+					println("error a4");
+				}
+				try {
+					foo6();
+				}
+				catch(InvalidRangeException) {
+					println("error a6");
+				}
+			} 
+			
+			every 1 second {
+				exit(0);
+			}
+			 
+			fn printarray(a: array<int8, ?>) {
+				print("[");
+				for(var i = 0; i < a.length(); i++) {
+					print(`${a[i]}`);
+					if(i < a.length() - 1) {
+						print(", ");
+					}
+				}
+				println("]");
+			}
+			
+			fn foo0() {
+				var a: array<int8, ?> = [1,2,3,4];
+				a += [5 as int8, 6,7]; 
+				a = [10,11,12,13,14,15];
+				return a; 
+			}
+			
+			fn foo2() {
+				var b: array<int8, ?> = [1,2,3,4];
+				var a: array<int8, ?> = b;
+				a += b; 
+				a = b; 
+				return a;
+			} 
+			
+			fn foo4() {
+				var a: array<int8, ?> = [1,2,3,4];
+				a += [5 as int8, 6,7]; 
+				a = [10,11,12,13,14,15];
+				return a[1:2]; 
+			}
+			
+			fn foo6() {
+				var b: array<int8, ?> = [1,2,3,4];
+				var a: array<int8, ?> = b[1:2];
+				a += b[1:2];  
+				a = b[1:2]; 
+			}
+		''',
+		'sumtypes' -> '''
+			package my.pkg;
+			
+			import platforms.x86;
+			
+			struct vec2d_t {
+			    var x: int32;
+			    var y: int32;
+			}
+			
+			alt anyVec { 
+				  vec0d /* singleton */ 
+				| vec1d: int32 
+				| vec2d: vec2d_t 
+				| vec3d: {x: int32, y: int32, z: int32} 
+				| vec4d: int32, int32, int32, int32
+			}
+					
+			fn incVec(a: anyVec) {
+				var b = anyVec.vec0d();
+			    where(a) {
+					is(anyVec.vec0d) {
+						b = anyVec.vec0d(); 
+					} 
+					is(anyVec.vec1d -> x) {
+					    b = anyVec.vec1d(x + 1);
+					} 
+					is(anyVec.vec2d -> v) {
+					    b = anyVec.vec2d(vec2d_t(x = v.x + 1, y = v.y + 1));
+					}
+					is(anyVec.vec3d -> x = vec3d.x, y = vec3d.y, z = vec3d.z) {
+					    b = anyVec.vec3d(x + 1, y + 1, z + 1);
+					}
+					is(anyVec.vec4d -> x, y, z, w) {
+						b = anyVec.vec4d(x + 1, y + 1, z + 1, w + 1);
+					} 
+			    } 
+			    return b;
+			}
+			
+			fn toString(a: anyVec) {
+				where(a) {
+					is(anyVec.vec0d) {
+						return "v0d()";
+					} 
+					is(anyVec.vec1d -> x) {
+						return `v1d(${x})`;
+					} 
+					is(anyVec.vec2d -> v) {
+					    return `v2d(${v.x}, ${v.y})`;
+					}
+					is(anyVec.vec3d -> x = vec3d.x, y = vec3d.y, z = vec3d.z) {
+					    return `v3d(${x}, ${y}, ${z})`;
+					}
+					is(anyVec.vec4d -> x, y, z, w) {
+						return `v4d(${x}, ${y}, ${z}, ${w})`;
+					}
+				}
+			}
+			
+			every x86.startup {
+				var v1 = anyVec.vec1d(1);
+				var v2 = anyVec.vec2d(vec2d_t(2, 3));
+				var v3 = anyVec.vec3d(4, 5, 6);
+				println(v1.incVec().toString());
+				println(v2.incVec().toString());
+				println(v3.incVec().toString());
+			}
+		'''
+	};
+}
@@ -0,0 +1,96 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import com.google.inject.Key
+import com.google.inject.Provider
+import com.google.inject.name.Names
+import java.util.List
+import java.util.concurrent.TimeUnit
+import org.eclipse.mita.base.typesystem.StdlibTypeRegistry
+import org.eclipse.mita.base.typesystem.infra.SubtypeChecker
+import org.eclipse.mita.base.typesystem.serialization.SerializationAdapter
+import org.eclipse.mita.base.typesystem.solver.ConstraintSolution
+import org.eclipse.mita.base.typesystem.solver.ConstraintSystem
+import org.eclipse.mita.base.typesystem.solver.IConstraintSolver
+import org.eclipse.mita.base.typesystem.solver.Substitution
+import org.eclipse.mita.base.typesystem.types.AbstractType
+import org.eclipse.xtext.scoping.IScopeProvider
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Measures subtype checks on programs with many numeric coercions:
+ * solving their constraints, and computing suprema of all pairs of integer types like coercions of binary operations do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+class SubtypeCheckerBenchmark {
+	@Param(#["coercions-100", "coercions-500"])
+	public String program;
+
+	protected BenchmarkProject project;
+	protected IConstraintSolver solver;
+	protected SubtypeChecker subtypeChecker;
+	protected Provider<Substitution> substitutionProvider;
+
+	protected ConstraintSystem preparedSystem;
+	protected List<AbstractType> integerTypes;
+
+	@Setup
+	def void setup() {
+		project = BenchmarkProject.load(program);
+		val injector = BenchmarkInjector.get();
+		solver = injector.getInstance(Key.get(IConstraintSolver, Names.named("mainSolver")));
+		subtypeChecker = injector.getInstance(SubtypeChecker);
+		substitutionProvider = injector.getProvider(Substitution);
+
+		preparedSystem = project.prepareConstraintSystem(injector.getInstance(SerializationAdapter), injector.getInstance(IScopeProvider));
+		integerTypes = injector.getInstance(StdlibTypeRegistry).getIntegerTypes(project.program).toList;
+	}
+
+	@Benchmark
+	def ConstraintSolution solve() {
+		project.renewCancelIndicator();
+		return solver.solve(new ConstraintSolution(new ConstraintSystem(preparedSystem), substitutionProvider.get(), newArrayList), project.program);
+	}
+
+	@Benchmark
+	def int integerSuprema() {
+		// a fresh system, so nothing is memoized from previous invocations
+		val system = new ConstraintSystem(preparedSystem);
+		var found = 0;
+		for(t1 : integerTypes) {
+			for(t2 : integerTypes) {
+				if(subtypeChecker.getSupremum(system, #[t1, t2], project.program) !== null) {
+					found++;
+				}
+			}
+		}
+		return found;
+	}
+}
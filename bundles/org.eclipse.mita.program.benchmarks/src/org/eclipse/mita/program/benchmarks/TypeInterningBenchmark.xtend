@@ -0,0 +1,103 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import java.util.ArrayDeque
+import java.util.Collections
+import java.util.IdentityHashMap
+import java.util.List
+import java.util.concurrent.TimeUnit
+import org.eclipse.mita.base.scoping.BaseResourceDescriptionStrategy
+import org.eclipse.mita.base.typesystem.infra.Tree
+import org.eclipse.mita.base.typesystem.serialization.SerializationAdapter
+import org.eclipse.mita.base.typesystem.solver.ConstraintSystem
+import org.eclipse.mita.base.typesystem.types.AbstractType
+import org.eclipse.xtext.resource.XtextResource
+import org.openjdk.jmh.annotations.AuxCounters
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Measures deserializing the constraints of the libraries and a program, which hash-conses their types (see {@link org.eclipse.mita.base.typesystem.types.TypeInterner}).
+ * Besides time, countTypes reports how many type instances the deserialized systems keep compared to how many types they reference.
+ * Run with <code>-prof gc</code> to see allocations. How fast those types are solved is measured by {@link TypeSystemBenchmark#solve}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+class TypeInterningBenchmark {
+	@Param(#["synthetic-500", "coercions-500"])
+	public String program;
+
+	protected BenchmarkProject project;
+	protected SerializationAdapter serializationAdapter;
+	protected List<String> serializedSystems;
+
+	@Setup
+	def void setup() {
+		project = BenchmarkProject.load(program);
+		serializationAdapter = BenchmarkInjector.get().getInstance(SerializationAdapter);
+		// like BenchmarkProject.prepareConstraintSystem, creating descriptions might load resources
+		serializedSystems = project.resourceSet.resources.filter(XtextResource).toList.flatMap[
+			val description = resourceServiceProvider.resourceDescriptionManager.getResourceDescription(it);
+			return description.exportedObjects.map[getUserData(BaseResourceDescriptionStrategy.CONSTRAINTS)].filterNull;
+		].toList;
+	}
+
+	@Benchmark
+	def List<ConstraintSystem> deserialize() {
+		return serializedSystems.map[serializationAdapter.deserializeConstraintSystemFromJSON(it, [project.resourceSet.getEObject(it, true)])].toList;
+	}
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	static class TypeCounters {
+		// types referenced by constraints, including type arguments
+		public long referencedTypes;
+		// distinct instances among them
+		public long typeInstances;
+	}
+
+	@Benchmark
+	def List<ConstraintSystem> countTypes(TypeCounters counters) {
+		val result = deserialize();
+		val instances = Collections.newSetFromMap(new IdentityHashMap<AbstractType, Boolean>());
+		val todo = new ArrayDeque<Tree<AbstractType>>();
+		for(system : result) {
+			for(constraint : system.constraints) {
+				todo.addAll(constraint.types.filterNull.map[it.quote]);
+			}
+		}
+		while(!todo.empty) {
+			val tree = todo.pop;
+			counters.referencedTypes++;
+			instances.add(tree.node);
+			todo.addAll(tree.children);
+		}
+		counters.typeInstances += instances.size;
+		return result;
+	}
+}
@@ -0,0 +1,130 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.benchmarks
+
+import com.google.inject.Key
+import com.google.inject.Provider
+import com.google.inject.name.Names
+import java.util.List
+import java.util.concurrent.TimeUnit
+import org.eclipse.mita.base.typesystem.IConstraintFactory
+import org.eclipse.mita.base.typesystem.constraints.EqualityConstraint
+import org.eclipse.mita.base.typesystem.infra.AbstractSizeInferrer
+import org.eclipse.mita.base.typesystem.serialization.SerializationAdapter
+import org.eclipse.mita.base.typesystem.solver.ConstraintSolution
+import org.eclipse.mita.base.typesystem.solver.ConstraintSystem
+import org.eclipse.mita.base.typesystem.solver.IConstraintSolver
+import org.eclipse.mita.base.typesystem.solver.MostGenericUnifierComputer
+import org.eclipse.mita.base.typesystem.solver.Substitution
+import org.eclipse.mita.base.typesystem.solver.UnificationResult
+import org.eclipse.mita.base.typesystem.types.AbstractType
+import org.eclipse.xtext.scoping.IScopeProvider
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Measures the stages of typing a program: creating and (de)serializing its constraints, solving them, unification and size inference.
+ * Each stage runs on the inputs the previous stages computed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+class TypeSystemBenchmark {
+	@Param(#["synthetic-10", "synthetic-100", "synthetic-500", "strings", "arrays", "sumtypes"])
+	public String program;
+	
+	protected BenchmarkProject project;
+	protected IConstraintFactory constraintFactory;
+	protected SerializationAdapter serializationAdapter;
+	protected IConstraintSolver solver;
+	protected IConstraintSolver sizeSolver;
+	protected MostGenericUnifierComputer mguComputer;
+	protected AbstractSizeInferrer sizeInferrer;
+	protected Provider<Substitution> substitutionProvider;
+	
+	protected String programConstraints;
+	protected ConstraintSystem preparedSystem;
+	protected ConstraintSolution solution;
+	protected List<Pair<AbstractType, AbstractType>> equalities;
+	
+	@Setup
+	def void setup() {
+		project = BenchmarkProject.load(program);
+		val injector = BenchmarkInjector.get();
+		constraintFactory = injector.getInstance(IConstraintFactory);
+		serializationAdapter = injector.getInstance(SerializationAdapter);
+		solver = injector.getInstance(Key.get(IConstraintSolver, Names.named("mainSolver")));
+		sizeSolver = injector.getInstance(Key.get(IConstraintSolver, Names.named("sizeSolver")));
+		mguComputer = injector.getInstance(MostGenericUnifierComputer);
+		sizeInferrer = injector.getInstance(AbstractSizeInferrer);
+		substitutionProvider = injector.getProvider(Substitution);
+		
+		programConstraints = serializationAdapter.toJSON(createConstraints());
+		preparedSystem = project.prepareConstraintSystem(serializationAdapter, injector.getInstance(IScopeProvider));
+		solution = solve();
+		equalities = preparedSystem.constraints.filter(EqualityConstraint).map[left -> right].toList;
+	}
+	
+	@Benchmark
+	def ConstraintSystem createConstraints() {
+		// like BaseResourceDescriptionStrategy, which creates constraints while linking
+		constraintFactory.typeRegistry.setIsLinking(true);
+		return constraintFactory.create(project.program);
+	}
+	
+	@Benchmark
+	def String serializationRoundTrip() {
+		val system = serializationAdapter.deserializeConstraintSystemFromJSON(programConstraints, [project.resourceSet.getEObject(it, true)]);
+		return serializationAdapter.toJSON(system);
+	}
+	
+	@Benchmark
+	def ConstraintSolution solve() {
+		project.renewCancelIndicator();
+		return solver.solve(new ConstraintSolution(new ConstraintSystem(preparedSystem), substitutionProvider.get(), newArrayList), project.program);
+	}
+	
+	@Benchmark
+	def UnificationResult unify() {
+		return mguComputer.compute(equalities);
+	}
+	
+	@Benchmark
+	def ConstraintSolution inferSizes() {
+		project.renewCancelIndicator();
+		val sizeConstraints = sizeInferrer.createSizeConstraints(solution, project.programResource);
+		val sizeSolution = sizeSolver.solve(sizeConstraints, project.program);
+		return sizeInferrer.validateSolution(sizeSolution, project.programResource);
+	}
+	
+	/**
+	 * Relinking the program without changes should reuse its latest solution.
+	 */
+	@Benchmark
+	def void relinkUnchanged() {
+		project.programResource.collectAndSolveTypes(project.program);
+	}
+}
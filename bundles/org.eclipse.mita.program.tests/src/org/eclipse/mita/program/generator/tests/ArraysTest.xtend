@@ -13,8 +13,11 @@
 
 package org.eclipse.mita.program.generator.tests;
 
+import java.util.regex.Pattern
 import org.junit.Test
 
+import static org.junit.Assert.*
+
 class ArraysTest extends AbstractGeneratorTest {
 	
 	@Test
@@ -37,5 +40,125 @@ class ArraysTest extends AbstractGeneratorTest {
 		ast.assertNoCompileErrors();
 	}
 	
+	@Test
+	def testProvablySafeAccessesAreNotChecked() {
+		val ast = generateAndParseApplication('''
+		package main;
+		import platforms.unittest;
+
+		fn main(b : array<int32, 10>) {
+			let a = [1,2,3,4];
+			var sum = a[3];
+			for(var i = 0; i < 4; i++) {
+				sum += a[i];
+			}
+			for(var j = 0; j < b.length(); j++) {
+				sum += b[j];
+			}
+			return sum;
+		}
+		''');
+		ast.assertNoCompileErrors();
+		
+		val mainFunction = ast.value.findFunction("main");
+		assertNotNull("No main function was generated", mainFunction);
+		assertFalse("Provably safe array access was checked", mainFunction.rawSignature.contains("EXCEPTION_INVALIDRANGEEXCEPTION"));
+	}
+	
+	@Test
+	def testPossiblyUnsafeAccessesAreChecked() {
+		val ast = generateAndParseApplication('''
+		package main;
+		import platforms.unittest;
+
+		fn main() {
+			let a = [1,2,3,4];
+			var sum = 0;
+			for(var i = 0; i <= 4; i++) {
+				sum += a[i];
+			}
+			return sum;
+		}
+		''');
+		ast.assertNoCompileErrors();
+		
+		val mainFunction = ast.value.findFunction("main");
+		assertNotNull("No main function was generated", mainFunction);
+		assertTrue("Possibly unsafe array access was not checked", mainFunction.rawSignature.contains("EXCEPTION_INVALIDRANGEEXCEPTION"));
+	}
+
+	@Test
+	def testAccessesWithOverflowingIndicesAreChecked() {
+		val ast = generateAndParseApplication('''
+		package main;
+		import platforms.unittest;
+
+		fn main(b : array<int32, 300>) {
+			let a = [«FOR n : 0..<100 SEPARATOR ', '»«n»«ENDFOR»];
+			var sum = 0;
+			// 0, 70, 140 wraps around to -116, which still is smaller than 100
+			for(var i : int8 = 0; i < 100; i += 70) {
+				sum += a[i];
+			}
+			// b.length() can be up to 300, which exceeds uint8
+			for(var j : uint8 = 0; j < b.length(); j++) {
+				sum += b[j];
+			}
+			return sum;
+		}
+		''');
+		ast.assertNoCompileErrors();
+
+		val mainFunction = ast.value.findFunction("main");
+		assertNotNull("No main function was generated", mainFunction);
+		val checks = Pattern.compile("EXCEPTION_INVALIDRANGEEXCEPTION").matcher(mainFunction.rawSignature).results.count;
+		assertTrue("Array access with overflowing index was not checked", checks >= 2);
+	}
+
+	@Test
+	def testNestedArraysOfSameCapacityAreCopiedAtOnce() {
+		val ast = generateAndParseApplication('''
+		package main;
+		import platforms.unittest;
+
+		fn main() {
+			var a: array<string<16>, 100>;
+			var b: array<string<16>, 100>;
+			b = a;
+			var c: array<array<int32, 8>, 100>;
+			var d: array<array<int32, 8>, 100>;
+			d = c;
+			var e: array<string<32>, 100>;
+			e = a;
+		}
+		''');
+		ast.assertNoCompileErrors();
+		
+		val mainFunction = ast.value.findFunction("main");
+		assertNotNull("No main function was generated", mainFunction);
+		val contiguousCopies = Pattern.compile("memmove\\(\\S+\\[0\\]\\.data").matcher(mainFunction.rawSignature).results.count;
+		// e's elements are larger than a's, so they are copied one by one
+		assertEquals("Nested arrays weren't copied at once", 2, contiguousCopies);
+	}
+	
+	@Test
+	def testSelfSlicesAreCopiedWithOverlap() {
+		val ast = generateAndParseApplication('''
+		package main;
+		import platforms.unittest;
+
+		fn main() {
+			var a: array<string<16>, 100>;
+			a = a[1:];
+		}
+		''');
+		ast.assertNoCompileErrors();
+		
+		val mainFunction = ast.value.findFunction("main");
+		assertNotNull("No main function was generated", mainFunction);
+		assertFalse("Overlapping elements were copied with memcpy", Pattern.compile("memcpy\\(\\S+\\[0\\]\\.data").matcher(mainFunction.rawSignature).find);
+		assertTrue("Self slice wasn't copied at once", Pattern.compile("memmove\\(\\S+\\[0\\]\\.data").matcher(mainFunction.rawSignature).find);
+		assertTrue("Layout of elements wasn't checked before copying them at once", mainFunction.rawSignature.contains(".capacity == 16"));
+	}
 	
 }
\ No newline at end of file
@@ -46,6 +46,22 @@ class AbstractRuntimeTest {
 	 * - "stdlib", path to the jar containing the stdlib
 	 */
 	def void compileMita(Path projectFolder) {
+		val command = mitaCommand("compile", "-p", projectFolder.toString);
+		println("compiling mita project...");
+		println(command.join(" "));
+		println("");
+		
+		val ProcessBuilder builder = new ProcessBuilder(command);
+		builder.redirectOutput(Redirect.INHERIT);
+		builder.redirectError(Redirect.INHERIT);
+		val Process pr = builder.start(); // may throw IOException
+		pr.waitFor();
+	}
+	
+	/**
+	 * Returns the command line running the Mita CLI with *args*, see {@link #compileMita(Path)} for the environment variables it requires.
+	 */
+	def List<String> mitaCommand(String... args) {
 		val Map<String, String> env = System.getenv();
 		val compilerJar = env.getOrDefault("MitaCLI", "org.eclipse.mita.cli.jar");
 		val x86platformJar = env.getOrDefault("x86platform", "org.eclipse.mita.repository/target/plugins/org.eclipse.mita.platform.x86_0.2.0.jar");
@@ -62,16 +78,7 @@ class AbstractRuntimeTest {
 		]
 		
 		// to debug, add "-agentlib:jdwp=transport=dt_socket,address=8123,server=y,suspend=y"
-		val List<String> command = #[javaExec, '''-Djava.class.path="«cpEntries.join(ps)»"''', "org.eclipse.mita.cli.Main", "compile", "-p", projectFolder.toString];
-		println("compiling mita project...");
-		println(command.join(" "));
-		println("");
-		
-		val ProcessBuilder builder = new ProcessBuilder(command);
-		builder.redirectOutput(Redirect.INHERIT);
-		builder.redirectError(Redirect.INHERIT);
-		val Process pr = builder.start(); // may throw IOException
-		pr.waitFor();
+		return (#[javaExec, '''-Djava.class.path="«cpEntries.join(ps)»"''', "org.eclipse.mita.cli.Main"] + args).toList;
 	}
 	
 	def void compileC(Path projectFolder, String target) {
@@ -21,12 +21,17 @@ import org.junit.runners.Suite.SuiteClasses;
 	ArraysTest.class,
 	ControlflowTest.class,
 	EpochTimeTest.class,
+	EventDrivenTest.class,
 	HelloWorldTest.class,
 //	MqttTest.class, // to do this test we need some kind of MQTT broker, which is not available on jenkins
+	MqttPublishWindowTest.class,
+	MqttReceivePoolTest.class,
 	ReferencesTest.class,
+	ServeTest.class,
 	RingbufferTest.class,
 	StringTest.class,
-	SumTypesTest.class
+	SumTypesTest.class,
+	WorkerThreadsTest.class
 })
 @RunWith(Suite.class)
 public class AllTests {
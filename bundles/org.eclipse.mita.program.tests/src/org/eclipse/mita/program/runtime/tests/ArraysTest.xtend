@@ -15,6 +15,7 @@ package org.eclipse.mita.program.runtime.tests
 
 import com.google.common.collect.Streams
 import java.nio.file.Paths
+import java.util.stream.Collectors
 import org.junit.Assert
 import org.junit.Test
 
@@ -114,4 +115,72 @@ class ArraysTest extends AbstractRuntimeTest {
 		])
 		return;
 	}
+
+	@Test
+	def testNestedCopies() {
+		val projectPath = setup("nestedArrayCopiesTest", '''
+		package my.pkg;
+		
+		import platforms.x86;
+		
+		native unchecked fn exit(status: int16): void header "stdlib.h";
+		
+		every x86.startup {
+			var source: array<string<8>, 4>;
+			source += ["ab", "cd", "ef"];
+			var copy: array<string<8>, 4>;
+			copy = source;
+			source = ["xy"];
+			for(var i = 0; i < copy.length(); i++) {
+				print(`${copy[i]} `);
+			}
+			println("");
+			
+			copy = copy[1:];
+			for(var i = 0; i < copy.length(); i++) {
+				print(`${copy[i]} `);
+			}
+			println("");
+			
+			// the elements of copy are 8 chars apart, not 16 like widen expects
+			let wide = widen(copy);
+			for(var i = 0; i < wide.length(); i++) {
+				print(`${wide[i]} `);
+			}
+			println("");
+			
+			var rows: array<array<int32, 3>, 4>;
+			var row = new array<int32, 3>();
+			row += [1, 2, 3];
+			rows += [row];
+			row = [4, 5];
+			rows += [row];
+			var rowsCopy: array<array<int32, 3>, 4>;
+			rowsCopy = rows;
+			for(var i = 0; i < rowsCopy.length(); i++) {
+				for(var j = 0; j < rowsCopy[i].length(); j++) {
+					print(`${rowsCopy[i][j]} `);
+				}
+				print("| ");
+			}
+			println("");
+			exit(0);
+		}
+		
+		every 1 second {
+			// do nothing, this is just to generate time functions
+		}
+		
+		fn widen(source: array<string<16>, 4>): array<string<16>, 4> {
+			var result: array<string<16>, 4>;
+			result = source;
+			return result;
+		}
+		''').key;
+		compileMita(projectPath);
+		compileC(projectPath, "all");
+		val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+		val lines = runAtMost(executable, 60).map[trim].collect(Collectors.toList);
+		Assert.assertEquals(#["ab cd ef", "cd ef", "cd ef", "1 2 3 | 4 5 |"], lines);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.runtime.tests
+
+import java.nio.file.Paths
+import java.util.stream.Collectors
+import org.junit.Assert
+import org.junit.Test
+
+class EventDrivenTest extends AbstractRuntimeTest {
+	@Test
+	def testMe() {
+		val projectPath = setup("eventDrivenTest", '''
+		package my.pkg;
+		
+		import platforms.x86;
+		
+		setup x86 {
+			eventDriven = true;
+		}
+		
+		var fast = 0;
+		var slow = 0;
+		
+		every x86.startup {
+			println("startup");
+		}
+		
+		every 100 milliseconds {
+			fast++;
+		}
+		
+		every 250 milliseconds {
+			slow++;
+			println(`${fast} ${slow}`);
+			if(slow >= 4) {
+				exit(0);
+			}
+		}
+		
+		native unchecked fn exit(status: int16): void header "stdlib.h";
+		''').key;
+		compileMita(projectPath);
+		compileC(projectPath, "all");
+		val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+		val start = System.nanoTime;
+		val lines = runAtMost(executable, 60).collect(Collectors.toList());
+		val seconds = (System.nanoTime - start) / 1e9;
+		Assert.assertEquals("startup", lines.head);
+		Assert.assertEquals(5, lines.size);
+		// the slow handler ran four times, the fast one about two and a half times as often
+		val counters = lines.last.split(" ").map[Integer.parseInt(it)];
+		Assert.assertEquals(4, counters.get(1));
+		Assert.assertTrue('''fast handler ran «counters.get(0)» times''', counters.get(0) > 4 && counters.get(0) < 16);
+		// the program exits after a second instead of running until it is killed
+		Assert.assertTrue('''program ran for «seconds» seconds''', seconds < 30);
+	}
+}
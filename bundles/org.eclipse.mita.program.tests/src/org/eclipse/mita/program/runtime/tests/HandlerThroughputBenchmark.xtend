@@ -0,0 +1,69 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.runtime.tests
+
+import java.nio.file.Paths
+import org.junit.Assert
+import org.junit.Test
+
+/**
+ * Measures how many handler invocations the x86 platform completes with a growing number of worker threads.
+ * Not part of AllTests since it takes a while and its results depend on the machine it runs on.
+ */
+class HandlerThroughputBenchmark extends AbstractRuntimeTest {
+	static val HANDLERS = 4;
+	static val RUNTIME_IN_SECONDS = 10;
+
+	@Test
+	def measureThroughput() {
+		val results = #[0, 1, 2, 4].map[ workerThreads |
+			val projectPath = setup("handlerThroughput" + workerThreads, '''
+			package my.pkg;
+
+			import platforms.x86;
+
+			setup x86 {
+				eventDriven = true;
+				workerThreads = «workerThreads»;
+			}
+
+			fn work() {
+				var x = 0;
+				for(var i = 0; i < 2000000; i++) {
+					x += i % 3;
+				}
+				return x;
+			}
+			«FOR i : 1..HANDLERS»
+
+			every 1 millisecond {
+				work();
+				println("«i»");
+			}
+			«ENDFOR»
+			''').key;
+			compileMita(projectPath);
+			compileC(projectPath, "all");
+			val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+			val invocations = runAtMost(executable, RUNTIME_IN_SECONDS).count;
+			return workerThreads -> invocations;
+		].toList;
+
+		println("worker threads, handler invocations per second");
+		results.forEach[
+			println('''«key», «value.doubleValue / RUNTIME_IN_SECONDS»''');
+		];
+		Assert.assertTrue("No handler ran", results.forall[value > 0]);
+	}
+}
@@ -0,0 +1,86 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.runtime.tests
+
+import java.nio.file.Paths
+import java.util.concurrent.TimeUnit
+import org.junit.Assert
+import org.junit.Test
+
+/**
+ * Measures how many QoS 1 messages per second the x86 platform publishes to a local mosquitto broker,
+ * waiting for each message (publishWindow = 0) and with a growing number of messages in flight.
+ * Not part of AllTests since it takes a while and its results depend on the machine it runs on.
+ */
+class MqttPublishBenchmark extends AbstractRuntimeTest {
+	static val MESSAGES = 20000;
+
+	@Test
+	def measurePublishRate() {
+		val Runtime rt = Runtime.getRuntime();
+		val pahoLibUrl = "https://www.eclipse.org/downloads/download.php?file=/paho/1.4/Eclipse-Paho-MQTT-C-1.3.1-Linux.tar.gz";
+		val downloadLocation = "/tmp/paho.tar.gz";
+
+		val wgetCommand = rt.exec(#["wget", pahoLibUrl, "-O", downloadLocation]);
+		wgetCommand.waitFor(60, TimeUnit.SECONDS);
+
+		val mosquitto = rt.exec("mosquitto");
+		try {
+			val results = #[0, 1, 16, 64].map[ publishWindow |
+				val projectPath = setup("mqttPublishBenchmark" + publishWindow, '''
+				package my.pkg;
+
+				import platforms.x86;
+
+				native unchecked fn exit(status: int16): void header "stdlib.h";
+
+				setup mqtt: MQTT {
+					url = "tcp://localhost:1883";
+					clientId = "publishBenchmark«publishWindow»";
+					publishWindow = «publishWindow»;
+					var x = topic("benchmark", qos=1);
+				}
+
+				every x86.startup {
+					for(var i = 0; i < «MESSAGES»; i++) {
+						mqtt.x.write("0123456789abcdef");
+					}
+					println("done");
+					exit(0);
+				}
+				''').key;
+				val extractCommand = rt.exec(#["tar", "xvzf", downloadLocation, "-C", projectPath.toString, "--strip-components=1"]);
+				extractCommand.waitFor(60, TimeUnit.SECONDS);
+
+				compileMita(projectPath);
+				compileC(projectPath, "all");
+				val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+				val start = System.nanoTime;
+				val lines = runAtMost(executable, #["LD_LIBRARY_PATH=" + projectPath.resolve(Paths.get("lib"))], 120).count;
+				val seconds = (System.nanoTime - start) / 1e9;
+				// up to publishWindow messages are still in flight when the program exits, which doesn't matter at this count
+				Assert.assertEquals("Benchmark didn't finish", 1, lines);
+				return publishWindow -> seconds;
+			].toList;
+
+			println("publish window, messages per second");
+			results.forEach[
+				println('''«key», «MESSAGES / value»''');
+			];
+		}
+		finally {
+			mosquitto.destroyForcibly;
+		}
+	}
+}
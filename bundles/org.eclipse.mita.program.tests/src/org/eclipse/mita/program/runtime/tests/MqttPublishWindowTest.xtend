@@ -0,0 +1,66 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.runtime.tests
+
+import java.nio.file.Files
+import java.nio.file.Paths
+import java.util.concurrent.TimeUnit
+import org.junit.Assert
+import org.junit.Test
+
+/**
+ * Compiles a program publishing with MQTT.publishWindow > 0. Unlike MqttTest it doesn't need a broker, since it doesn't run the program.
+ */
+class MqttPublishWindowTest extends AbstractRuntimeTest {
+	@Test
+	def testCompiles() {
+		val projectPath = setup("mqttPublishWindowTest", '''
+		package my.pkg;
+		
+		import platforms.x86;
+		
+		setup mqtt: MQTT {
+			url = "tcp://localhost:1883";
+			clientId = "publishWindowTest";
+			publishWindow = 4;
+			var x = topic("foo", qos=1);
+		}
+		
+		var ctr = 0;
+		
+		every 1 second {
+			mqtt.x.write(`${ctr}`);
+			ctr = ctr + 1;
+		}
+		
+		every mqtt.x.msgReceived(msg) {
+			println(msg);
+		}
+		''').key;
+		val Runtime rt = Runtime.getRuntime();
+		val pahoLibUrl = "https://www.eclipse.org/downloads/download.php?file=/paho/1.4/Eclipse-Paho-MQTT-C-1.3.1-Linux.tar.gz";
+		val downloadLocation = "/tmp/paho.tar.gz";
+		
+		val wgetCommand = rt.exec(#["wget", pahoLibUrl, "-O", downloadLocation]);
+		wgetCommand.waitFor(60, TimeUnit.SECONDS);
+		
+		val extractCommand = rt.exec(#["tar", "xvzf", downloadLocation, "-C", projectPath.toString, "--strip-components=1"]);
+		extractCommand.waitFor(60, TimeUnit.SECONDS);
+		
+		compileMita(projectPath);
+		compileC(projectPath, "all");
+		val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+		Assert.assertTrue("Generated code didn't compile", Files.exists(executable));
+	}
+}
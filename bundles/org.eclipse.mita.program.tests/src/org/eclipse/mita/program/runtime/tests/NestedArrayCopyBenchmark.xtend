@@ -0,0 +1,88 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.runtime.tests
+
+import java.nio.file.Paths
+import java.util.stream.Collectors
+import org.junit.Assert
+import org.junit.Test
+
+/**
+ * Compares copying large arrays of strings and arrays whose elements have the same capacity on both sides (copied at once)
+ * to copying them into elements of a larger capacity (copied one by one).
+ * Not part of AllTests since it takes a while and its results depend on the machine it runs on.
+ */
+class NestedArrayCopyBenchmark extends AbstractRuntimeTest {
+	static val ELEMENTS = 1000;
+	static val ROUNDS = 20000;
+
+	@Test
+	def compareVariants() {
+		val variants = #[
+			"strings, same capacity" -> #["string<64>", "string<64>"],
+			"strings, larger capacity" -> #["string<64>", "string<128>"],
+			"arrays, same capacity" -> #["array<int32, 64>", "array<int32, 64>"],
+			"arrays, larger capacity" -> #["array<int32, 64>", "array<int32, 128>"]
+		];
+		val results = variants.indexed.map[
+			val name = value.key;
+			val sourceType = value.value.get(0);
+			val targetType = value.value.get(1);
+			val isString = sourceType.startsWith("string");
+			val projectPath = setup("nestedArrayCopyBenchmark" + key, '''
+			package my.pkg;
+
+			import platforms.x86;
+
+			native unchecked fn exit(status: int16): void header "stdlib.h";
+
+			every x86.startup {
+				var source: array<«sourceType», «ELEMENTS»>;
+				var target: array<«targetType», «ELEMENTS»>;
+				«IF isString»
+				for(var i = 0; i < «ELEMENTS»; i++) {
+					source += ["0123456789abcdef0123456789abcdef"];
+				}
+				«ELSE»
+				var row = new array<int32, 64>();
+				for(var i = 0; i < 64; i++) {
+					row += [i];
+				}
+				for(var i = 0; i < «ELEMENTS»; i++) {
+					source += [row];
+				}
+				«ENDIF»
+				for(var round = 0; round < «ROUNDS»; round++) {
+					target = source;
+				}
+				println(`${target.length()}`);
+				exit(0);
+			}
+			''').key;
+			compileMita(projectPath);
+			compileC(projectPath, "all");
+			val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+			val start = System.nanoTime;
+			val lines = runAtMost(executable, 120).collect(Collectors.toList);
+			val seconds = (System.nanoTime - start) / 1e9;
+			Assert.assertEquals("Benchmark didn't finish", #[ELEMENTS.toString], lines);
+			return name -> seconds;
+		].toList;
+
+		println("variant, copies of " + ELEMENTS + " elements per second");
+		results.forEach[
+			println('''«key», «ROUNDS / value»''');
+		];
+	}
+}
@@ -0,0 +1,69 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.runtime.tests
+
+import java.nio.file.Paths
+import org.junit.Assert
+import org.junit.Test
+
+/**
+ * Compares push/pop throughput of ringbuffers whose capacity is a power of two (indexed with bit masks)
+ * to ringbuffers of almost the same capacity which aren't.
+ * Not part of AllTests since it takes a while and its results depend on the machine it runs on.
+ */
+class RingbufferBenchmark extends AbstractRuntimeTest {
+	static val ROUNDS = 200000;
+
+	@Test
+	def compareVariants() {
+		val results = #[63, 64, 127, 128].map[ capacity |
+			val projectPath = setup("ringbufferBenchmark" + capacity, '''
+			package my.pkg;
+
+			import platforms.x86;
+
+			native unchecked fn exit(status: int16): void header "stdlib.h";
+
+			let rb: ringbuffer<uint32, «capacity»>;
+
+			every x86.startup {
+				var sum: uint32 = 0;
+				for(var round = 0; round < «ROUNDS»; round++) {
+					for(var i = 0; i < «capacity»; i++) {
+						rb.push(i);
+					}
+					while(!rb.empty()) {
+						sum += rb.pop();
+					}
+				}
+				println(`${sum}`);
+				exit(0);
+			}
+			''').key;
+			compileMita(projectPath);
+			compileC(projectPath, "all");
+			val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+			val start = System.nanoTime;
+			val lines = runAtMost(executable, 120).count;
+			val seconds = (System.nanoTime - start) / 1e9;
+			Assert.assertEquals("Benchmark didn't finish", 1, lines);
+			return capacity -> seconds;
+		].toList;
+
+		println("capacity, push/pop pairs per second");
+		results.forEach[
+			println('''«key», «key.longValue * ROUNDS / value»''');
+		];
+	}
+}
@@ -15,6 +15,7 @@ package org.eclipse.mita.program.runtime.tests
 
 import com.google.common.collect.Streams
 import java.nio.file.Paths
+import java.util.stream.Collectors
 import org.junit.Assert
 import org.junit.Test
 
@@ -295,4 +296,61 @@ class RingbufferTest extends AbstractRuntimeTest {
 		])
 		return;
 	}
-}
\ No newline at end of file
+	
+	@Test
+	def testPowerOfTwoCapacity() {
+		// rb is indexed with bit masks, drain doesn't know its capacity and uses the generic helpers
+		val projectPath = setup("ringbufferPowerOfTwoTest", '''
+		package my.pkg;
+		
+		import platforms.x86;
+		
+		native unchecked fn exit(status: int16): void header "stdlib.h";
+		
+		let rb: ringbuffer<int32, 4>;
+		
+		fn drain(r: &ringbuffer<int32, ?>) {
+			let n = (*r).count();
+			for(var i = 0; i < n; i++) {
+				print(`${(*r).pop()} `);
+			}
+			println(`${(*r).count()}`);
+		}
+		
+		every x86.startup {
+			rb.push(-1);
+			// wraps the indices of rb several times
+			for(var i = 0; i < 10; i++) {
+				rb.push(i);
+				rb.push(i + 10);
+				print(`${rb.count()} ${rb.full()} ${rb.peek()} `);
+				println(`${rb.pop()} ${rb.pop()}`);
+			}
+			try {
+				rb.push(100);
+				rb.push(101);
+				rb.push(102);
+				println(`${rb.count()} ${rb.full()}`);
+				rb.push(103);
+			}
+			catch(IndexOutOfBoundsException) {
+				println("IOOB");
+			}
+			(&rb).drain();
+			exit(0);
+		}
+		
+		every 1 second {
+			// do nothing, this is just to generate time functions
+		}
+		''').key;
+		compileMita(projectPath);
+		compileC(projectPath, "all");
+		val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+		val lines = runAtMost(executable, 60).map[trim].collect(Collectors.toList);
+		val expectations = #["3 0 -1 -1 0"]
+			+ (1 ..< 10).map[i | '''3 0 «i + 9» «i + 9» «i»'''.toString]
+			+ #["4 1", "IOOB", "19 100 101 102 0"];
+		Assert.assertEquals(expectations.toList, lines);
+	}
+}
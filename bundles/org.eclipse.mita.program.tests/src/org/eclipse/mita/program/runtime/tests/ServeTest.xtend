@@ -0,0 +1,183 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.runtime.tests
+
+import java.io.BufferedReader
+import java.io.IOException
+import java.io.InputStreamReader
+import java.io.OutputStreamWriter
+import java.io.PrintWriter
+import java.lang.ProcessBuilder.Redirect
+import java.net.InetAddress
+import java.net.ServerSocket
+import java.net.Socket
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.stream.Collectors
+import org.junit.Assert
+import org.junit.Test
+
+/**
+ * Compiles several projects on one compile server and checks that unloading a project leaves nothing behind
+ * which changes the output of the next one.
+ */
+class ServeTest extends AbstractRuntimeTest {
+	static val TIMEOUT = 120000;
+
+	static val FIRST = '''
+		package my.pkg;
+
+		import platforms.x86;
+
+		setup x86 {
+		}
+
+		struct Point {
+			var x: int32;
+			var y: int32;
+		}
+
+		fn distance(a: Point, b: Point) {
+			return (a.x - b.x) * (a.x - b.x) + (a.y - b.y) * (a.y - b.y);
+		}
+
+		every x86.startup {
+			let a = Point(x = 1, y = 2);
+			let b = Point(x = 4, y = 6);
+			println(`${distance(a, b)}`);
+		}
+	''';
+
+	static val SECOND = '''
+		package my.pkg;
+
+		import platforms.x86;
+
+		setup x86 {
+		}
+
+		alt Point {
+			  Cartesian: {x: int32, y: int32}
+			| Polar: int32, int32
+		}
+
+		fn distance(a: Point) {
+			var result = 0;
+			where(a) {
+				is(Point.Cartesian -> x = Cartesian.x, y = Cartesian.y) {
+					result = x * x + y * y;
+				}
+				is(Point.Polar -> r, phi) {
+					result = r * r;
+				}
+			}
+			return result;
+		}
+
+		every x86.startup {
+			var values: array<int32, 4>;
+			values[0] = distance(Point.Cartesian(1, 2));
+			values[1] = distance(Point.Polar(3, 0));
+			println(`${values[0] + values[1]}`);
+		}
+	''';
+
+	@Test
+	def testMe() {
+		val first = setup("serveFirst", FIRST).key;
+		val second = setup("serveSecond", SECOND).key;
+		val firstReference = setup("serveFirstReference", FIRST).key;
+		val secondReference = setup("serveSecondReference", SECOND).key;
+		compileMita(firstReference);
+		compileMita(secondReference);
+
+		val tokenFile = Files.createTempDirectory("serveToken").resolve("serve.token");
+		val port = freePort;
+		val builder = new ProcessBuilder(mitaCommand("serve", "-P", String.valueOf(port), "-t", tokenFile.toString));
+		builder.redirectOutput(Redirect.INHERIT);
+		builder.redirectError(Redirect.INHERIT);
+		val server = builder.start();
+		try {
+			try(val socket = connect(server, port, tokenFile)) {
+				val token = Files.readString(tokenFile);
+				val out = new PrintWriter(new OutputStreamWriter(socket.outputStream, StandardCharsets.UTF_8), true);
+				val in = new BufferedReader(new InputStreamReader(socket.inputStream, StandardCharsets.UTF_8));
+				for(project : #[first, second, first]) {
+					out.println(token + "\t" + project);
+					val response = in.readLine;
+					Assert.assertTrue('''«project»: «response»''', response !== null && response.startsWith("ok "));
+				}
+			}
+		}
+		finally {
+			server.destroy();
+		}
+
+		// compiling other projects in between must not change the output of a project
+		assertSameOutput(firstReference, first);
+		assertSameOutput(secondReference, second);
+	}
+
+	protected def void assertSameOutput(Path expectedProject, Path actualProject) {
+		val expected = expectedProject.generatedFiles;
+		val actual = actualProject.generatedFiles;
+		Assert.assertFalse(expected.empty);
+		Assert.assertEquals(expected.keySet, actual.keySet);
+		for(file : expected.keySet) {
+			Assert.assertEquals(file, expected.get(file), actual.get(file));
+		}
+	}
+
+	protected def int getFreePort() {
+		try(val socket = new ServerSocket(0, 50, InetAddress.loopbackAddress)) {
+			return socket.localPort;
+		}
+	}
+
+	/**
+	 * Waits until the server has loaded the libraries and written its token, then connects to it.
+	 */
+	protected def Socket connect(Process server, int port, Path tokenFile) {
+		val deadline = System.currentTimeMillis + TIMEOUT;
+		while(System.currentTimeMillis < deadline && server.alive) {
+			// the token is written once the server socket is bound
+			if(Files.exists(tokenFile) && Files.size(tokenFile) > 0) {
+				try {
+					val result = new Socket(InetAddress.loopbackAddress, port);
+					result.soTimeout = TIMEOUT;
+					return result;
+				}
+				catch(IOException e) {
+					// not accepting yet
+				}
+			}
+			Thread.sleep(100);
+		}
+		throw new AssertionError("Compile server didn't start");
+	}
+
+	/**
+	 * Returns the generated files of project by their path relative to src-gen, without the generation date.
+	 */
+	protected def getGeneratedFiles(Path project) {
+		val srcGen = project.resolve("src-gen");
+		try(val files = Files.walk(srcGen)) {
+			return files.filter[Files.isRegularFile(it)].collect(Collectors.toMap(
+				[srcGen.relativize(it).toString],
+				[Files.readAllLines(it).filter[!trim.startsWith("* @date")].join("\n")]
+			));
+		}
+	}
+}
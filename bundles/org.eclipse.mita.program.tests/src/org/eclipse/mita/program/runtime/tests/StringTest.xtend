@@ -68,4 +68,38 @@ class StringTest extends AbstractRuntimeTest {
 			Assert.assertEquals(l1_l2.key, l1_l2.value);
 		}
 	}
-}
\ No newline at end of file
+	
+	@Test
+	def testInterpolation() {
+		val projectPath = setup("stringInterpolationTest", '''
+		package my.pkg;
+				
+		import platforms.x86;
+		
+		every x86.startup {
+			let zero: uint32 = 0;
+			let negative: int16 = -1234;
+			let large: uint32 = 4000000000;
+			let fraction: f32 = 1.5;
+			let flag = true;
+			let name = "mita";
+			let a = `${zero}|${negative}|${large}|${fraction}|${flag}|${name}!`;
+			println(a);
+			var b = new string<100>();
+			b = `[${name}]`;
+			println(b);
+			exit(0); 
+		}
+		
+		native unchecked fn exit(status: int16): void header "stdlib.h";
+		''').key;
+		compileMita(projectPath);
+		compileC(projectPath, "all");
+		val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+		val lines = runAtMost(executable, 60);
+		val expectedLines = #["0|-1234|4000000000|1.5|1|mita!", "[mita]"];
+		for(l1_l2: lines.collect(Collectors.toList).zip(expectedLines)) {
+			Assert.assertEquals(l1_l2.key, l1_l2.value);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.runtime.tests
+
+import java.nio.file.Paths
+import java.util.stream.Collectors
+import org.junit.Assert
+import org.junit.Test
+
+class WorkerThreadsTest extends AbstractRuntimeTest {
+	@Test
+	def testMe() {
+		// handlers take longer than their period, so their events pile up while both workers are busy
+		val projectPath = setup("workerThreadsTest", '''
+		package my.pkg;
+		
+		import platforms.x86;
+		
+		setup x86 {
+			workerThreads = 2;
+		}
+		
+		var a = 0;
+		var aBusy = false;
+		var b = 0;
+		var bBusy = false;
+		
+		fn work() {
+			var x = 0;
+			for(var i = 0; i < 200000; i++) {
+				x += i % 3;
+			}
+			return x;
+		}
+		
+		every x86.startup {
+			println("startup");
+		}
+		
+		every 1 millisecond {
+			if(aBusy) {
+				println("a overlaps");
+			}
+			aBusy = true;
+			a++;
+			work();
+			println(`a ${a}`);
+			aBusy = false;
+		}
+		
+		every 2 milliseconds {
+			if(bBusy) {
+				println("b overlaps");
+			}
+			bBusy = true;
+			b++;
+			work();
+			println(`b ${b}`);
+			bBusy = false;
+			if(b >= 50) {
+				exit(0);
+			}
+		}
+		
+		native unchecked fn exit(status: int16): void header "stdlib.h";
+		''').key;
+		compileMita(projectPath);
+		compileC(projectPath, "all");
+		val executable = projectPath.resolve(Paths.get("src-gen", "build", "app"));
+		val lines = runAtMost(executable, 60).collect(Collectors.toList());
+		Assert.assertTrue(lines.contains("startup"));
+		Assert.assertFalse(lines.exists[endsWith("overlaps")]);
+		// each handler ran one invocation after the other
+		for(handler : #["a", "b"]) {
+			val invocations = lines.filter[startsWith(handler + " ")].map[Integer.parseInt(substring(2))].toList;
+			Assert.assertFalse(invocations.empty);
+			Assert.assertEquals((1 .. invocations.size).toList, invocations);
+		}
+		Assert.assertTrue(lines.contains("b 50"));
+	}
+}
@@ -18,7 +18,13 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @SuiteClasses({ 
-	GeneratorUtilsTest.class
+	ConstraintSystemCacheTest.class,
+	GeneratorUtilsTest.class,
+	GraphTest.class,
+	LibraryIndexTest.class,
+	PrecomputeConstraintsTest.class,
+	ServeCommandTest.class,
+	SubstitutionTest.class
 })
 @RunWith(Suite.class)
 public class AllTests {
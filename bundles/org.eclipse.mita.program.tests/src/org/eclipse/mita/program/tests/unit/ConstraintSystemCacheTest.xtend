@@ -0,0 +1,111 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.tests.unit
+
+import org.eclipse.emf.common.util.URI
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
+import org.eclipse.mita.base.typesystem.infra.ConstraintSystemCache
+import org.eclipse.mita.base.typesystem.solver.ConstraintSystem
+import org.junit.Before
+import org.junit.Test
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNotSame
+import static org.junit.Assert.assertSame
+
+class ConstraintSystemCacheTest {
+	static val A = URI.createURI("platform:/plugin/lib/a.mita");
+	static val B = URI.createURI("platform:/plugin/lib/b.mita");
+	static val C = URI.createURI("platform:/plugin/lib/c.mita");
+
+	ResourceSet resourceSet;
+	ConstraintSystemCache cache;
+
+	@Before
+	def void setup() {
+		resourceSet = new ResourceSetImpl();
+		for(uri : #[A, B, C]) {
+			resourceSet.resources += new LoadedResource(uri);
+		}
+		cache = new ConstraintSystemCache(2);
+	}
+
+	protected def ConstraintSystem getOrCreate(URI uri, String serialized) {
+		return cache.getOrCreate(resourceSet, uri, serialized, [| new ConstraintSystem()]);
+	}
+
+	@Test
+	def void testHitAndMiss() {
+		val system = getOrCreate(A, "a");
+		assertSame(system, getOrCreate(A, "a"));
+		// equal, but not the same string
+		assertSame(system, getOrCreate(A, new String("a")));
+		assertEquals(2, cache.hits);
+		assertEquals(1, cache.misses);
+
+		// a changed resource misses and replaces the entry
+		val changed = getOrCreate(A, "a'");
+		assertNotSame(system, changed);
+		assertSame(changed, getOrCreate(A, "a'"));
+		assertEquals(3, cache.hits);
+		assertEquals(2, cache.misses);
+	}
+
+	@Test
+	def void testLeastRecentlyUsedIsEvicted() {
+		val a = getOrCreate(A, "a");
+		val b = getOrCreate(B, "b");
+		// A is used more recently than B now
+		assertSame(a, getOrCreate(A, "a"));
+		getOrCreate(C, "c");
+		assertEquals(1, cache.evictions);
+
+		assertSame(a, getOrCreate(A, "a"));
+		assertNotSame(b, getOrCreate(B, "b"));
+		assertEquals(2, cache.evictions);
+	}
+
+	@Test
+	def void testUnloadedResourceMisses() {
+		val system = getOrCreate(A, "a");
+		resourceSet.getResource(A, false).unload();
+		assertNotSame(system, getOrCreate(A, "a"));
+		assertEquals(0, cache.hits);
+	}
+
+	@Test
+	def void testReplacedResourceMisses() {
+		val system = getOrCreate(A, "a");
+		resourceSet.resources.remove(resourceSet.getResource(A, false));
+		resourceSet.resources += new LoadedResource(A);
+		assertNotSame(system, getOrCreate(A, "a"));
+		assertEquals(0, cache.hits);
+	}
+
+	@Test
+	def void testResourceOutsideOfResourceSetIsNotCached() {
+		val uri = URI.createURI("platform:/plugin/lib/d.mita");
+		assertNotSame(getOrCreate(uri, "d"), getOrCreate(uri, "d"));
+		assertEquals(0, cache.hits);
+	}
+
+	static class LoadedResource extends ResourceImpl {
+		new(URI uri) {
+			super(uri);
+			setLoaded(true);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.tests.unit
+
+import java.util.Arrays
+import java.util.Set
+import java.util.stream.Collectors
+import org.eclipse.mita.base.typesystem.infra.Graph
+import org.junit.Test
+
+import static org.junit.Assert.assertEquals
+
+class GraphTest {
+	@Test
+	def void testCopyToIsIndependent() {
+		val graph = createGraph();
+		// memoize closures before copying
+		assertEquals(#{"b", "c"}, graph.successorsOf("a"));
+		val copy = new Graph<String>();
+		graph.copyTo(copy);
+		assertCopiesAreIndependent(graph, copy);
+	}
+
+	@Test
+	def void testCloneIsIndependent() {
+		val graph = createGraph();
+		assertEquals(#{"b", "c"}, graph.successorsOf("a"));
+		val copy = graph.clone() as Graph<String>;
+		assertCopiesAreIndependent(graph, copy);
+	}
+
+	@Test
+	def void testRemoveNodeClearsClosures() {
+		val graph = createGraph();
+		assertEquals(#{"a", "b"}, graph.predecessorsOf("c"));
+		graph.removeNode(graph.addNode("b"));
+		assertEquals(#{}, graph.successorsOf("a"));
+		assertEquals(#{}, graph.predecessorsOf("c"));
+	}
+
+	protected def void assertCopiesAreIndependent(Graph<String> graph, Graph<String> copy) {
+		assertEquals(#{"b", "c"}, copy.successorsOf("a"));
+		graph.addEdge("c", "d");
+		copy.addEdge("a", "e");
+		assertEquals(#{"b", "c", "d"}, graph.successorsOf("a"));
+		assertEquals(#{"a", "b", "c"}, graph.predecessorsOf("d"));
+		assertEquals(#{}, graph.predecessorsOf("e"));
+		assertEquals(#{"b", "c", "e"}, copy.successorsOf("a"));
+		assertEquals(#{}, copy.successorsOf("c"));
+		assertEquals(#{"a"}, copy.predecessorsOf("e"));
+	}
+
+	protected def Graph<String> createGraph() {
+		val result = new Graph<String>();
+		result.addEdge("a", "b");
+		result.addEdge("b", "c");
+		return result;
+	}
+
+	protected def Set<String> successorsOf(Graph<String> graph, String node) {
+		return Arrays.stream(graph.getClosure(graph.outgoing, graph.addNode(node))).mapToObj[graph.nodeIndex.get(it)].collect(Collectors.toSet);
+	}
+
+	protected def Set<String> predecessorsOf(Graph<String> graph, String node) {
+		return Arrays.stream(graph.getClosure(graph.incoming, graph.addNode(node))).mapToObj[graph.nodeIndex.get(it)].collect(Collectors.toSet);
+	}
+}
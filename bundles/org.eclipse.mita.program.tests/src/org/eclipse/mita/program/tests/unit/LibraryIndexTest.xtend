@@ -0,0 +1,99 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.tests.unit
+
+import java.io.File
+import java.io.FileOutputStream
+import java.net.URLClassLoader
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.util.Map
+import java.util.jar.JarEntry
+import java.util.jar.JarOutputStream
+import org.eclipse.mita.base.util.LibraryIndex
+import org.eclipse.mita.cli.commands.CompileCommand
+import org.eclipse.mita.library.stdlib.ArrayGenerator
+import org.junit.Test
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+import static org.junit.Assert.assertNotNull
+import static org.junit.Assert.assertNull
+import static org.junit.Assert.assertTrue
+import static org.junit.Assume.assumeNotNull
+
+class LibraryIndexTest {
+	static val HASH = "7faa304c9f2cb4a20e546ed7e3d0397d2bdb3576b18ceaf28a063f4decbfcd53";
+	static val LIBRARY_PLUGIN_XML = '''<plugin><extension point="«CompileCommand.LIBRARY_EXTENSION_POINT»"/></plugin>''';
+
+	@Test
+	def void testParseLine() {
+		assertEquals("lib/1.0.0/stdlib_print.mita" -> HASH, LibraryIndex.parseLine(HASH + " lib/1.0.0/stdlib_print.mita"));
+		assertEquals("lib/1.0.0/stdlib_print.mita" -> HASH, LibraryIndex.parseLine(HASH + " lib\\1.0.0\\stdlib_print.mita"));
+		// pattern arguments unknown to ant's checksum task are written as they are
+		assertNull(LibraryIndex.parseLine(HASH + " {5}"));
+		assertNull(LibraryIndex.parseLine("1234 lib/1.0.0/stdlib_print.mita"));
+		assertNull(LibraryIndex.parseLine(HASH));
+		assertNull(LibraryIndex.parseLine(""));
+	}
+
+	@Test
+	def void testGeneratedStdlibIndex() {
+		val classLoader = ArrayGenerator.classLoader;
+		// the index is generated by the maven build, bundles built by the IDE don't have one
+		assumeNotNull(classLoader.getResource(LibraryIndex.LOCATION));
+		val paths = LibraryIndex.read(classLoader).keySet;
+		assertFalse(paths.empty);
+		for(path : paths) {
+			assertTrue(path, path.startsWith("lib/") && path.endsWith(".mita"));
+			assertNotNull(path, classLoader.getResource(path));
+		}
+	}
+
+	@Test
+	def void testLibrariesWithoutIndexAreScanned() {
+		val directory = Files.createTempDirectory("mita-library-index").toFile;
+		val indexed = writeJar(directory, "indexed.jar", #{
+			"plugin.xml" -> LIBRARY_PLUGIN_XML,
+			LibraryIndex.LOCATION -> HASH + " lib/indexed.mita",
+			"lib/indexed.mita" -> "",
+			"lib/unlisted.mita" -> ""
+		});
+		val unindexed = writeJar(directory, "unindexed.jar", #{
+			"plugin.xml" -> LIBRARY_PLUGIN_XML,
+			"lib/unindexed.platform" -> ""
+		});
+		val dependency = writeJar(directory, "dependency.jar", #{
+			"examples/example.mita" -> ""
+		});
+		val jars = #[indexed, unindexed, dependency];
+		try(val classLoader = new URLClassLoader(jars.map[toURI.toURL], null)) {
+			val files = CompileCommand.getLibraryFiles(classLoader, jars.map[path]).toSet;
+			assertEquals(#{"classpath:/lib/indexed.mita", "classpath:/lib/unindexed.platform"}, files);
+		}
+	}
+
+	protected def File writeJar(File directory, String name, Map<String, String> entries) {
+		val result = new File(directory, name);
+		result.deleteOnExit();
+		try(val out = new JarOutputStream(new FileOutputStream(result))) {
+			for(entry : entries.entrySet) {
+				out.putNextEntry(new JarEntry(entry.key));
+				out.write(entry.value.getBytes(StandardCharsets.UTF_8));
+				out.closeEntry();
+			}
+		}
+		return result;
+	}
+}
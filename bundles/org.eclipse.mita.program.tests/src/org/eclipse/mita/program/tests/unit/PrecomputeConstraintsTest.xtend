@@ -0,0 +1,139 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.tests.unit
+
+import com.google.inject.Inject
+import com.google.inject.Injector
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.Map
+import org.apache.commons.cli.GnuParser
+import org.eclipse.mita.base.scoping.BaseResourceDescriptionStrategy
+import org.eclipse.mita.cli.commands.CompileCommand
+import org.eclipse.mita.program.tests.util.ProgramDslInjectorProvider
+import org.eclipse.xtext.resource.XtextResource
+import org.eclipse.xtext.testing.InjectWith
+import org.eclipse.xtext.testing.XtextRunner
+import org.junit.Test
+import org.junit.runner.RunWith
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertFalse
+
+@RunWith(XtextRunner)
+@InjectWith(ProgramDslInjectorProvider)
+class PrecomputeConstraintsTest {
+	static val COMPILATION_UNITS = 8;
+
+	@Inject
+	Injector injector;
+
+	@Test
+	def void testJobsDefaultToOne() {
+		assertEquals(1, command(writeProject(), #[]).jobs);
+	}
+
+	@Test
+	def void testParallelAndSerialConstraintsAreEqual() {
+		val project = writeProject();
+		val serial = load(project, #['-j', '1']).constraints;
+		val parallel = load(project, #['-j', '4']).constraints;
+		assertFalse(serial.empty);
+		assertEquals(serial, parallel);
+	}
+
+	protected def LibraryCompileCommand load(Path project, String[] arguments) {
+		val result = command(project, arguments);
+		result.loadResourceSet();
+		return result;
+	}
+
+	protected def LibraryCompileCommand command(Path project, String[] arguments) {
+		val result = new LibraryCompileCommand();
+		injector.injectMembers(result);
+		result.init('compile', new GnuParser().parse(result.options, (#['-p', project.toString] + arguments).toList));
+		return result;
+	}
+
+	protected def Path writeProject() {
+		val result = Files.createTempDirectory("mita-precompute-constraints");
+		for(i : 0 ..< COMPILATION_UNITS) {
+			Files.writeString(result.resolve("application" + i + ".mita"), '''
+				package main;
+				import platforms.unittest;
+
+				fn sum«i»(a: array<int32, ?>): int32 {
+					var result: int32 = 0;
+					for(var j = 0; j < a.length(); j++) {
+						result += a[j];
+					}
+					return result;
+				}
+
+				fn step«i»(x: int32): int32 {
+					let values = [x, «i», x * 2];
+					var total = sum«i»(values);
+					«IF i > 0»
+					total += step«i - 1»(x);
+					«ENDIF»
+					return total;
+				}
+				«IF i == COMPILATION_UNITS - 1»
+
+				every 100 milliseconds {
+					println(`${step«i»(1)}`);
+				}
+				«ENDIF»
+			''');
+		}
+		return result;
+	}
+
+	/**
+	 * Loads the libraries of the library provider, since tests don't run with the libraries on the classpath.
+	 */
+	static class LibraryCompileCommand extends CompileCommand {
+		override protected loadLibraries() {
+			for(library : libraryProvider.standardLibraries + libraryProvider.libraries) {
+				resourceSet.getResource(library, true);
+			}
+			precomputeConstraints(resourceSet.resources.toList);
+		}
+
+		override public loadResourceSet() {
+			super.loadResourceSet();
+		}
+
+		def int getJobs() {
+			return jobs;
+		}
+
+		/**
+		 * @returns the serialized constraints of all loaded resources by the URI of the object exporting them.
+		 */
+		def Map<String, String> getConstraints() {
+			val result = newHashMap;
+			for(resource : resourceSet.resources.filter(XtextResource).toList) {
+				val description = resource.resourceServiceProvider.resourceDescriptionManager.getResourceDescription(resource);
+				for(object : description.exportedObjects) {
+					val constraints = object.getUserData(BaseResourceDescriptionStrategy.CONSTRAINTS);
+					if(constraints !== null) {
+						result.put(object.EObjectURI.toString, constraints);
+					}
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.tests.unit
+
+import java.io.BufferedReader
+import java.io.InputStreamReader
+import java.io.OutputStreamWriter
+import java.io.PrintWriter
+import java.net.InetAddress
+import java.net.ServerSocket
+import java.net.Socket
+import java.nio.charset.StandardCharsets
+import org.eclipse.mita.cli.commands.ServeCommand
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNull
+import static org.junit.Assert.assertTrue
+
+class ServeCommandTest {
+	static val TOKEN = "secret";
+	
+	ServerSocket serverSocket;
+	
+	@Before
+	def void setup() {
+		serverSocket = new ServerSocket(0, 50, InetAddress.loopbackAddress);
+		val command = new EchoServeCommand(200);
+		val server = new Thread([command.serve(serverSocket)]);
+		server.daemon = true;
+		server.start();
+	}
+	
+	@After
+	def void tearDown() {
+		serverSocket.close();
+	}
+	
+	@Test(timeout = 10000)
+	def void testIdleClientDoesNotBlockOthers() {
+		try(val idleClient = connect()) {
+			try(val client = connect()) {
+				assertEquals("ok /project", client.request(TOKEN + "\t/project"));
+				assertEquals("ok /other", client.request(TOKEN + "\t/other"));
+			}
+		}
+	}
+	
+	@Test(timeout = 10000)
+	def void testWrongTokenClosesConnection() {
+		try(val client = connect()) {
+			assertEquals("error Wrong session token", client.request("guess\t/project"));
+			assertNull(client.response);
+		}
+	}
+	
+	@Test
+	def void testOptions() {
+		val options = new ServeCommand().options;
+		assertTrue(options.hasOption('metrics'));
+		assertTrue(options.hasOption('client-timeout'));
+	}
+	
+	protected def Socket connect() {
+		val result = new Socket(InetAddress.loopbackAddress, serverSocket.localPort);
+		result.soTimeout = 5000;
+		return result;
+	}
+	
+	protected def String request(Socket socket, String request) {
+		new PrintWriter(new OutputStreamWriter(socket.outputStream, StandardCharsets.UTF_8), true).println(request);
+		return socket.response;
+	}
+	
+	protected def String getResponse(Socket socket) {
+		return new BufferedReader(new InputStreamReader(socket.inputStream, StandardCharsets.UTF_8)).readLine;
+	}
+	
+	/**
+	 * Answers each request with its path instead of compiling it.
+	 */
+	static class EchoServeCommand extends ServeCommand {
+		new(int clientTimeout) {
+			this.clientTimeout = clientTimeout;
+			this.token = TOKEN;
+		}
+		
+		override serve(ServerSocket serverSocket) {
+			super.serve(serverSocket);
+		}
+		
+		override protected compile(String path) {
+			return "ok " + path;
+		}
+	}
+}
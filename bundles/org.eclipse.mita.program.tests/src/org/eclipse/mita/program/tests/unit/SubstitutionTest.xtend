@@ -0,0 +1,75 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.tests.unit
+
+import org.eclipse.mita.base.typesystem.solver.Substitution
+import org.eclipse.mita.base.typesystem.types.AtomicType
+import org.eclipse.mita.base.typesystem.types.TypeVariable
+import org.junit.Test
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNotEquals
+import static org.junit.Assert.assertNull
+
+class SubstitutionTest {
+	val a = new TypeVariable(null, 0);
+	val b = new TypeVariable(null, 1);
+	val c = new TypeVariable(null, 2);
+	val int32 = new AtomicType(null, "int32");
+	val bool = new AtomicType(null, "bool");
+
+	@Test
+	def void testCopiesAreIndependent() {
+		val substitution = new Substitution();
+		// c is a free variable of b's type, so substituting c updates b
+		substitution.add(b, c);
+		val copy = new Substitution(substitution);
+
+		copy.add(c, int32);
+		copy.add(a, int32);
+		assertEquals(int32, copy.content.get(b.idx));
+		assertEquals(c, substitution.content.get(b.idx));
+		assertNull(substitution.content.get(a.idx));
+		assertNull(substitution.idxToTypeVariable.get(a.idx));
+
+		// the original still knows that b's type contains c
+		substitution.add(c, bool);
+		assertEquals(bool, substitution.content.get(b.idx));
+		assertEquals(int32, copy.content.get(b.idx));
+	}
+
+	@Test
+	def void testContentVersion() {
+		val substitution = new Substitution();
+		substitution.add(a, int32);
+		val version = substitution.contentVersion;
+
+		// copies have the version of their original until either of them is modified
+		val copy = new Substitution(substitution);
+		assertEquals(version, copy.contentVersion);
+		copy.add(b, int32);
+		assertNotEquals(version, copy.contentVersion);
+		assertEquals(version, substitution.contentVersion);
+
+		// applying an empty substitution doesn't change anything
+		new Substitution().applyMutating(substitution);
+		assertEquals(version, substitution.contentVersion);
+
+		// neither does removing what isn't there
+		substitution.remove(b);
+		assertEquals(version, substitution.contentVersion);
+		substitution.remove(a);
+		assertNotEquals(version, substitution.contentVersion);
+	}
+}
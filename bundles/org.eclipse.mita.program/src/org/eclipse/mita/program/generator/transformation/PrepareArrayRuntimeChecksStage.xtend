@@ -14,6 +14,10 @@
 package org.eclipse.mita.program.generator.transformation
 
 import com.google.inject.Inject
+import java.util.List
+import java.util.Map
+import org.apache.log4j.Logger
+import org.eclipse.emf.ecore.EObject
 import org.eclipse.mita.base.expressions.ArrayAccessExpression
 import org.eclipse.mita.base.expressions.ElementReferenceExpression
 import org.eclipse.mita.base.expressions.PrimitiveValueExpression
@@ -26,19 +30,43 @@ import org.eclipse.mita.program.Program
 import org.eclipse.mita.program.ProgramBlock
 import org.eclipse.mita.program.ProgramFactory
 import org.eclipse.mita.program.WhileStatement
+import org.eclipse.mita.program.generator.CompilationContext
+import org.eclipse.mita.program.inferrer.ArrayIndexRangeInferrer
 import org.eclipse.mita.program.inferrer.StaticValueInferrer
 import org.eclipse.xtext.EcoreUtil2
 
 import static extension org.eclipse.mita.base.types.TypeUtils.ignoreCoercions
 
 class PrepareArrayRuntimeChecksStage extends AbstractTransformationStage {	
+	static val LOGGER = Logger.getLogger(PrepareArrayRuntimeChecksStage);
+	
 	@Inject
 	protected UnravelLiteralArraysStage unravelExpression;
 	
+	@Inject
+	protected ArrayIndexRangeInferrer rangeInferrer;
+	
+	// modified local variables of the program being transformed, see ArrayIndexRangeInferrer.collectModifications
+	protected Map<EObject, List<EObject>> modifications;
+
+	protected int accessCount;
+	protected int eliminatedCheckCount;
+	
 	override getOrder() {
 		return ORDER_LATE;
 	}
 	
+	override transform(ITransformationPipelineInfoProvider pipeline, CompilationContext context, Program program) {
+		accessCount = 0;
+		eliminatedCheckCount = 0;
+		modifications = rangeInferrer.collectModifications(program);
+		val result = super.transform(pipeline, context, program);
+		if(accessCount > 0) {
+			LOGGER.info('''«program.eResource?.URI?.lastSegment»: eliminated «eliminatedCheckCount» of «accessCount» array runtime checks''');
+		}
+		return result;
+	}
+	
 	override protected doPostTransformations(Program program) {
 		unravelExpression.doPostTransformations(program);
 		super.doPostTransformations(program);
@@ -47,11 +75,14 @@ class PrepareArrayRuntimeChecksStage extends AbstractTransformationStage {
 	protected dispatch def void doTransform(ArrayAccessExpression expression) {
 		expression.transformChildren();
 		
-		// precondition: we can't infer the dimensions of the array and the access ourselves
+		// precondition: we can't prove the access to be within the bounds of the array ourselves
+		accessCount++;
+		if(rangeInferrer.isInBounds(expression, modifications)) {
+			eliminatedCheckCount++;
+			return;
+		}
 		val arraySelector = expression.arraySelector.ignoreCoercions as Expression;
 		val staticVal = StaticValueInferrer.infer(arraySelector, [x|]);
-		val canInferStatically = false && staticVal !== null;
-		if(canInferStatically) return;
 		
 		if(staticVal === null) {
 			val exprs = if(arraySelector instanceof ValueRange) {
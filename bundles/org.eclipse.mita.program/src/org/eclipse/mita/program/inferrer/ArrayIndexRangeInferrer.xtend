@@ -0,0 +1,324 @@
+/********************************************************************************
+ * Copyright (c) 2026 Robert Bosch GmbH & TypeFox GmbH
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * Contributors:
+ *    Robert Bosch GmbH & TypeFox GmbH - initial contribution
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package org.eclipse.mita.program.inferrer
+
+import java.util.ArrayList
+import java.util.HashMap
+import java.util.List
+import java.util.Map
+import org.eclipse.emf.ecore.EObject
+import org.eclipse.mita.base.expressions.ArrayAccessExpression
+import org.eclipse.mita.base.expressions.AssignmentExpression
+import org.eclipse.mita.base.expressions.AssignmentOperator
+import org.eclipse.mita.base.expressions.ElementReferenceExpression
+import org.eclipse.mita.base.expressions.ExpressionStatement
+import org.eclipse.mita.base.expressions.LogicalAndExpression
+import org.eclipse.mita.base.expressions.LogicalRelationExpression
+import org.eclipse.mita.base.expressions.PostFixOperator
+import org.eclipse.mita.base.expressions.PostFixUnaryExpression
+import org.eclipse.mita.base.expressions.RelationalOperator
+import org.eclipse.mita.base.expressions.ValueRange
+import org.eclipse.mita.base.types.Expression
+import org.eclipse.mita.base.types.GeneratedFunctionDefinition
+import org.eclipse.mita.base.typesystem.types.IntegerType
+import org.eclipse.mita.base.typesystem.types.LiteralTypeExpression
+import org.eclipse.mita.base.typesystem.types.Signedness
+import org.eclipse.mita.base.typesystem.types.TypeConstructorType
+import org.eclipse.mita.base.util.BaseUtils
+import org.eclipse.mita.program.ArrayLiteral
+import org.eclipse.mita.program.ForStatement
+import org.eclipse.mita.program.FunctionParameterDeclaration
+import org.eclipse.mita.program.Program
+import org.eclipse.mita.program.ReferenceExpression
+import org.eclipse.mita.program.VariableDeclaration
+import org.eclipse.xtext.EcoreUtil2
+
+import static extension org.eclipse.mita.base.types.TypeUtils.ignoreCoercions
+import static extension org.eclipse.mita.base.util.BaseUtils.computeOrigin
+
+/**
+ * Infers whether the index of an array access provably stays within the length of the accessed array.
+ *
+ * Indices are bounded either by their static value (see {@link StaticValueInferrer}) or by the condition of a for loop
+ * which only ever increments them and whose index type can't overflow while doing so. Array lengths are only known for local arrays which are initialized with a literal
+ * and never assigned or referenced afterwards. Inferred array sizes are capacities, not lengths, and can't be used here.
+ *
+ * Whether variables are modified is looked up in the modifications of the program (see {@link #collectModifications(Program)}),
+ * which are collected once per program instead of walking the program for every access.
+ */
+class ArrayIndexRangeInferrer {
+
+	static val LENGTH_GENERATOR = "org.eclipse.mita.library.stdlib.ArrayGenerator$LengthGenerator";
+
+	/**
+	 * Collects the expressions of program which modify local variables, see {@link #isModifiedIn(EObject, EObject, Map)}.
+	 *
+	 * @returns the modifying expressions by the variable they modify
+	 */
+	def Map<EObject, List<EObject>> collectModifications(Program program) {
+		val result = new HashMap<EObject, List<EObject>>();
+		val addModification = [EObject variable, EObject expression |
+			if(variable !== null) {
+				result.computeIfAbsent(variable, [new ArrayList()]).add(expression);
+			}
+		];
+		program.eAllContents.forEach[
+			switch(it) {
+				AssignmentExpression: addModification.apply(varRef.localVariable, it)
+				PostFixUnaryExpression: addModification.apply(operand.localVariable, it)
+				ReferenceExpression: EcoreUtil2.eAllOfType(it, ElementReferenceExpression).forEach[ref | addModification.apply(ref.reference, it)]
+				// generated functions may operate on their arguments in place
+				ElementReferenceExpression: if(operationCall && reference instanceof GeneratedFunctionDefinition) {
+					for(argument : arguments) {
+						val variable = argument.value.localVariable;
+						if(variable !== null && !isLengthOf(variable)) {
+							addModification.apply(variable, it);
+						}
+					}
+				}
+			}
+		];
+		return result;
+	}
+
+	/**
+	 * @param modifications the modifications of the program containing access, see {@link #collectModifications(Program)}
+	 * @returns true if the access can never be out of bounds, so its runtime check can be omitted.
+	 */
+	def boolean isInBounds(ArrayAccessExpression access, Map<EObject, List<EObject>> modifications) {
+		val selector = access.arraySelector.ignoreCoercions;
+		if(selector instanceof ValueRange) {
+			return false;
+		}
+		val array = access.owner.localVariable;
+		if(array === null) {
+			return false;
+		}
+
+		val staticIndex = selector.staticLong;
+		if(staticIndex !== null) {
+			val length = array.getKnownLength(modifications);
+			return staticIndex >= 0 && length !== null && staticIndex < length;
+		}
+
+		val index = selector.localVariable;
+		if(!(index instanceof VariableDeclaration)) {
+			return false;
+		}
+		return EcoreUtil2.getAllContainers(access).filter(ForStatement).exists[ loop |
+			EcoreUtil2.isAncestor(loop.body, access) && loop.boundsInLoop(index as VariableDeclaration, array, modifications)
+		];
+	}
+
+	/**
+	 * @returns true if index is a loop variable of loop which stays within [0, array.length()) throughout the loop body.
+	 * The index must not wrap around either: its type has to hold the largest value the post loop statements can produce.
+	 */
+	protected def boolean boundsInLoop(ForStatement loop, VariableDeclaration index, EObject array, Map<EObject, List<EObject>> modifications) {
+		if(!loop.loopVariables.contains(index)) {
+			return false;
+		}
+		val start = index.initialization?.staticLong;
+		if(start === null || start < 0) {
+			return false;
+		}
+		val maxIndex = index.maxValue;
+		if(maxIndex === null || start > maxIndex) {
+			return false;
+		}
+		if(index.isModifiedIn(loop.condition, modifications) || index.isModifiedIn(loop.body, modifications)) {
+			return false;
+		}
+		val increments = loop.postLoopStatements.map[ index.getIncrementBy(it, modifications) ];
+		if(increments.exists[it === null]) {
+			return false;
+		}
+		val maxIncrement = increments.fold(0L, [sum, it | sum + it]);
+
+		return loop.condition.conjuncts.exists[ condition |
+			if(!(condition instanceof LogicalRelationExpression)) {
+				return false;
+			}
+			val relation = condition as LogicalRelationExpression;
+			if(relation.leftOperand.localVariable !== index) {
+				return false;
+			}
+			val bound = relation.rightOperand.ignoreCoercions;
+			if(relation.operator == RelationalOperator.SMALLER && bound.isLengthOf(array)) {
+				// the length might change while looping if the array itself is modified
+				// and can be at most the capacity of the array
+				val capacity = array.capacity;
+				return capacity !== null
+					&& capacity - 1 + maxIncrement <= maxIndex
+					&& !array.isModifiedIn(loop, modifications);
+			}
+			val staticBound = bound.staticLong;
+			val length = array.getKnownLength(modifications);
+			if(staticBound === null || length === null) {
+				return false;
+			}
+			return switch(relation.operator) {
+				case SMALLER: staticBound <= length && staticBound - 1 + maxIncrement <= maxIndex
+				case SMALLER_EQUAL: staticBound < length && staticBound + maxIncrement <= maxIndex
+				default: false
+			}
+		];
+	}
+
+	protected def Iterable<EObject> getConjuncts(EObject expression) {
+		val expr = expression?.ignoreCoercions;
+		if(expr instanceof LogicalAndExpression) {
+			return expr.leftOperand.conjuncts + expr.rightOperand.conjuncts;
+		}
+		return if(expr === null) #[] else #[expr];
+	}
+
+	/**
+	 * @returns by how much statement increments index, 0 if it leaves index untouched or null if it modifies index otherwise.
+	 */
+	protected def Long getIncrementBy(VariableDeclaration index, EObject statement, Map<EObject, List<EObject>> modifications) {
+		val expr = if(statement instanceof ExpressionStatement) statement.expression?.ignoreCoercions;
+		if(expr instanceof PostFixUnaryExpression) {
+			if(expr.operand.localVariable === index) {
+				return if(expr.operator == PostFixOperator.INCREMENT) 1L else null;
+			}
+		}
+		if(expr instanceof AssignmentExpression) {
+			if(expr.varRef.localVariable === index) {
+				val increment = expr.expression.staticLong;
+				if(expr.operator == AssignmentOperator.ADD_ASSIGN && increment !== null && increment >= 0 && !index.isModifiedIn(expr.expression, modifications)) {
+					return increment;
+				}
+				return null;
+			}
+		}
+		return if(index.isModifiedIn(statement, modifications)) null else 0L;
+	}
+
+	/**
+	 * @returns the largest value the integer type of variable can hold, or null if variable is not known to be an integer.
+	 * Integers of unknown signedness are assumed to be signed.
+	 */
+	protected def Long getMaxValue(VariableDeclaration variable) {
+		val type = BaseUtils.getType(variable.computeOrigin);
+		if(!(type instanceof IntegerType)) {
+			return null;
+		}
+		val integerType = type as IntegerType;
+		val bits = integerType.widthInBytes * 8;
+		if(bits <= 0 || bits > 64) {
+			return null;
+		}
+		if(integerType.signedness == Signedness.Unsigned && bits < 64) {
+			return (1L << bits) - 1;
+		}
+		// uint64 can hold more, but we can't compute with it
+		return (1L << (bits - 1)) - 1;
+	}
+
+	/**
+	 * @returns the capacity of array as inferred by the type system, which bounds its length, or null.
+	 */
+	protected def Long getCapacity(EObject array) {
+		val type = BaseUtils.getType(array.computeOrigin);
+		if(!(type instanceof TypeConstructorType)) {
+			return null;
+		}
+		val size = (type as TypeConstructorType).typeArguments.last;
+		if(size instanceof LiteralTypeExpression<?>) {
+			val value = size.eval();
+			if(value instanceof Long) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @returns the length of a local array which is initialized with a literal and can't change afterwards, or null.
+	 */
+	protected def Long getKnownLength(EObject array, Map<EObject, List<EObject>> modifications) {
+		if(!(array instanceof VariableDeclaration)) {
+			return null;
+		}
+		val variable = array as VariableDeclaration;
+		val initialization = variable.initialization?.ignoreCoercions;
+		if(!(initialization instanceof ArrayLiteral)) {
+			return null;
+		}
+		if(modifications.containsKey(variable)) {
+			return null;
+		}
+		return (initialization as ArrayLiteral).values.size as long;
+	}
+
+	protected def boolean isLengthOf(EObject expression, EObject array) {
+		if(expression instanceof ElementReferenceExpression) {
+			val function = expression.reference;
+			return expression.operationCall
+				&& function instanceof GeneratedFunctionDefinition
+				&& (function as GeneratedFunctionDefinition).generator == LENGTH_GENERATOR
+				&& expression.arguments.size == 1
+				&& expression.arguments.head.value.localVariable === array;
+		}
+		return false;
+	}
+
+	/**
+	 * @returns true if variable is assigned, incremented, decremented, referenced or passed to a generated function within context.
+	 */
+	protected def boolean isModifiedIn(EObject variable, EObject context, Map<EObject, List<EObject>> modifications) {
+		if(context === null) {
+			return false;
+		}
+		// transformations replace expressions by copies, then we can't tell where the modification went
+		return modifications.getOrDefault(variable, #[]).exists[
+			EcoreUtil2.isAncestor(context, it) || EcoreUtil2.getContainerOfType(it, Program) === null
+		];
+	}
+
+	/**
+	 * @returns the local variable or function parameter expression plainly refers to, or null.
+	 */
+	protected def EObject getLocalVariable(EObject expression) {
+		val expr = if(expression instanceof Expression) expression.ignoreCoercions else expression;
+		if(expr instanceof ElementReferenceExpression) {
+			if(expr.operationCall) {
+				return null;
+			}
+			val ref = expr.reference;
+			if(ref instanceof FunctionParameterDeclaration) {
+				return ref;
+			}
+			if(ref instanceof VariableDeclaration) {
+				if(!(ref.eContainer instanceof Program)) {
+					return ref;
+				}
+			}
+		}
+		return null;
+	}
+
+	protected def Long getStaticLong(EObject expression) {
+		val value = StaticValueInferrer.infer(expression, []);
+		if(value instanceof Long) {
+			return value;
+		}
+		if(value instanceof Integer) {
+			return value.longValue;
+		}
+		return null;
+	}
+
+}
@@ -81,7 +81,7 @@ class SizeConstraintSolver implements IConstraintSolver {
 						val niceRenamer = new NicerTypeVariableNamesForErrorMessages;
 						issues += witnessesNotWeaklyUnifyable.map[new ValidationIssue(Severity.ERROR, "Types are recursive: " + witnessesNotWeaklyUnifyable.map[it.modifyNames(niceRenamer)].force.toString, it.origin, null, "")]; 
 						witnessesNotWeaklyUnifyable.filter(TypeVariable).forEach[
-							simplification.substitution.content.remove(it.idx);
+							simplification.substitution.remove(it);
 						]
 					}
 					
@@ -32,7 +32,6 @@ import org.eclipse.mita.base.scoping.TypesGlobalScopeProvider
 import org.eclipse.mita.base.types.AnonymousProductType
 import org.eclipse.mita.base.types.ComplexType
 import org.eclipse.mita.base.types.EnumerationType
-import org.eclipse.mita.base.types.Expression
 import org.eclipse.mita.base.types.NamedProductType
 import org.eclipse.mita.base.types.Operation
 import org.eclipse.mita.base.types.StructureType
@@ -42,7 +41,6 @@ import org.eclipse.mita.base.types.SumType
 import org.eclipse.mita.base.types.Type
 import org.eclipse.mita.base.types.TypeReferenceSpecifier
 import org.eclipse.mita.base.types.TypesPackage
-import org.eclipse.mita.base.typesystem.types.AbstractType
 import org.eclipse.mita.base.util.BaseUtils
 import org.eclipse.mita.platform.AbstractSystemResource
 import org.eclipse.mita.platform.Platform
@@ -66,7 +64,6 @@ import org.eclipse.xtext.EcoreUtil2
 import org.eclipse.xtext.naming.IQualifiedNameConverter
 import org.eclipse.xtext.naming.IQualifiedNameProvider
 import org.eclipse.xtext.naming.QualifiedName
-import org.eclipse.xtext.resource.IEObjectDescription
 import org.eclipse.xtext.scoping.IScope
 import org.eclipse.xtext.scoping.Scopes
 import org.eclipse.xtext.scoping.impl.FilteringScope
@@ -265,49 +262,6 @@ class ProgramDslScopeProvider extends AbstractProgramDslScopeProvider {
 
 	protected final OnChangeEvictingCache scope_FeatureCall_feature_cache = new OnChangeEvictingCache();
 
-	protected def getExtensionMethodScope(Expression context, EReference reference, AbstractType type) {
-		return new FilteringScope(delegate.getScope(context, reference), [ x |
-			(x.EClass == ProgramPackage.Literals.FUNCTION_DEFINITION ||
-				x.EClass == TypesPackage.Literals.GENERATED_FUNCTION_DEFINITION) && x.isApplicableOn(type)
-		]);
-	}
-
-	protected def isApplicableOn(IEObjectDescription operationDesc, AbstractType contextType) {
-		var params = operationDesc.getUserData(ProgramDslResourceDescriptionStrategy.OPERATION_PARAM_TYPES);
-		val paramArray = if (params === null) {
-				if (operationDesc.EObjectOrProxy instanceof Operation) {
-					/* Workaround for when we did not get a proper object description, i.e. the object description was not produced
-					 * by a ProgramDslResourceDescriptionStrategy. In that case, if the description object is already resolved, we'll
-					 * compute the parameter types ourselves.
-					 */
-					ProgramDslResourceDescriptionStrategy.getOperationParameterTypes(
-						operationDesc.EObjectOrProxy as Operation);
-				} else {
-					#[] as String[]
-				}
-			} else {
-				params.toArray
-			}
-
-		if (paramArray.size == 0) {
-			return false
-		}
-		val paramTypeName = paramArray.get(0)
-		return contextType.isSubtypeOf(paramTypeName)
-	}
-
-	protected def isSubtypeOf(AbstractType subType, String superTypeName) {
-		return subType.name == superTypeName;
-//		if (subType.name == superTypeName) {
-//			return true
-//		}
-//		return typeSystem.getSuperTypes(subType).exists[name == superTypeName]
-	}
-
-	protected def toArray(String paramArrayAsString) {
-		paramArrayAsString.replace("[", "").replace("]", "").split(", ")
-	}
-
 	dispatch protected def addFeatureScope(SumType owner, IScope scope) {
 		Scopes.scopeFor(owner.alternatives, scope);
 	}
@@ -5,13 +5,16 @@ import java.util.Optional
 import org.eclipse.mita.base.util.BaseUtils
 import org.eclipse.mita.library.stdlib.RingbufferGenerator
 import org.eclipse.mita.platform.x86.IMakefileParticipant
+import org.eclipse.mita.platform.x86.platform.EventLoopGenerator
 import org.eclipse.mita.program.EventHandlerDeclaration
 import org.eclipse.mita.program.SignalInstance
 import org.eclipse.mita.program.SystemEventSource
+import org.eclipse.mita.program.SystemResourceSetup
 import org.eclipse.mita.program.generator.AbstractSystemResourceGenerator
 import org.eclipse.mita.program.generator.CodeFragment
 import org.eclipse.mita.program.generator.CodeWithContext
 import org.eclipse.mita.program.generator.StatementGenerator
+import org.eclipse.mita.program.inferrer.StaticValueInferrer
 import org.eclipse.mita.program.model.ModelUtils
 
 import static extension org.eclipse.mita.base.util.BaseUtils.castOrNull;
@@ -32,13 +35,115 @@ class MqttGenerator extends AbstractSystemResourceGenerator implements IMakefile
 	@Inject
 	protected extension GeneratorUtils;
 	
+	@Inject
+	protected EventLoopGenerator eventLoopGenerator;
+	
 	// returns a char*
 	protected def getHandlerTopic(EventHandlerDeclaration handler) {
 		val sigInst = handler.event.castOrNull(SystemEventSource)?.signalInstance;
 		return '''«sigInst?.name»TopicBuf''';
 	}
 	
+	/**
+	 * @returns the number of received messages kept for handler without copying them (see MQTT.receivePoolSize),
+	 * 0 if handler doesn't handle MQTT messages or they are copied into its ringbuffer.
+	 */
+	static def long getReceivePoolSize(EventHandlerDeclaration handler) {
+		val setup = handler?.event?.castOrNull(SystemEventSource)?.signalInstance?.eContainer?.castOrNull(SystemResourceSetup);
+		if(setup?.type?.name != "MQTT") {
+			return 0;
+		}
+		val poolSize = StaticValueInferrer.infer(setup.getConfigurationItemValueOrDefault("receivePoolSize"), []);
+		return if(poolSize instanceof Long) poolSize else 0;
+	}
+	
+	/**
+	 * @returns the number of published messages which may be in flight at the same time (see MQTT.publishWindow),
+	 * 0 if publishing waits for each message to be delivered.
+	 */
+	static def long getPublishWindow(SystemResourceSetup setup) {
+		if(setup?.type?.name != "MQTT") {
+			return 0;
+		}
+		val window = StaticValueInferrer.infer(setup.getConfigurationItemValueOrDefault("publishWindow"), []);
+		return if(window instanceof Long) window else 0;
+	}
+	
+	/**
+	 * Counts published messages until the client reports their delivery.
+	 * A lost connection fails all of them, which the next publish reports.
+	 * 
+	 * The callbacks run on the client's receive thread and take Mita_mqttPublishMutex,
+	 * so publishing must not hold it while calling into the client.
+	 */
+	protected def generateAsyncPublishPreamble() {
+		return codeFragmentProvider.create('''
+			// messages published with QoS > 0 and not delivered yet, including those still being handed to the client
+			static uint32_t Mita_mqttInFlightCount = 0;
+			// the failure of messages published earlier, reported by the next publish
+			static int Mita_mqttPublishFailure = MQTTCLIENT_SUCCESS;
+			static pthread_mutex_t Mita_mqttPublishMutex = PTHREAD_MUTEX_INITIALIZER;
+			static pthread_cond_t Mita_mqttPublishCondition = PTHREAD_COND_INITIALIZER;
+			
+			static void Mita_mqttReleasePublishSlot(void) {
+				pthread_mutex_lock(&Mita_mqttPublishMutex);
+				// the connection might have been lost in the meantime, which released all slots
+				if(Mita_mqttInFlightCount > 0) {
+					Mita_mqttInFlightCount--;
+					pthread_cond_signal(&Mita_mqttPublishCondition);
+				}
+				pthread_mutex_unlock(&Mita_mqttPublishMutex);
+			}
+			
+			void deliveryCompleteCb(void* context, MQTTClient_deliveryToken token) {
+				Mita_mqttReleasePublishSlot();
+			}
+			
+			void connectionLostCb(void* context, char* cause) {
+				pthread_mutex_lock(&Mita_mqttPublishMutex);
+				if(Mita_mqttInFlightCount > 0) {
+					// messages in flight won't be delivered anymore
+					Mita_mqttPublishFailure = MQTTCLIENT_DISCONNECTED;
+					Mita_mqttInFlightCount = 0;
+					pthread_cond_broadcast(&Mita_mqttPublishCondition);
+				}
+				pthread_mutex_unlock(&Mita_mqttPublishMutex);
+			}
+		''').addHeader("pthread.h", true);
+	}
+	
+	/**
+	 * Pushes a view of the received message into the handler's ringbuffer and keeps the message until the handler released it.
+	 * The ringbuffer's slots are free as soon as the handler popped them, so its fill level is computed from the released index instead.
+	 */
+	protected def generateReceiveWithoutCopy(EventHandlerDeclaration handler) {
+		val rb = '''rb_«handler.handlerName»''';
+		return codeFragmentProvider.create('''
+			if(ringbuffer_count(RINGBUFFER_LOAD(«handler.handlerName»_released), «rb».write, «rb».capacity) < «rb».capacity) {
+				uint32_t slot = ringbuffer_mask(«rb».write, «rb».capacity);
+				MITA_MQTT_RETAIN(received->references);
+				«handler.handlerName»_received[slot] = received;
+				«rb».data[slot] = msg;
+				RINGBUFFER_STORE(«rb».write, ringbuffer_increment(«rb».write, «rb».capacity));
+				«handler.handlerName»_flag = 1;
+				«IF eventLoopGenerator.isEventDriven(context)»
+					Mita_notifyEventLoop();
+				«ENDIF»
+			}
+		''').addHeader('''«handler.getIncludePathForTypeImplementation(RingbufferGenerator.wrapInRingbuffer(typeRegistry, handler, BaseUtils.getType(handler.event.castOrNull(SystemEventSource))))»''', false);
+	}
+	
+	/**
+	 * Every message in use is referenced by the ringbuffer of a handler or is still being dispatched,
+	 * so the receive pools of all handlers plus one bound the number of messages kept at the same time.
+	 */
+	protected def long getReceivedMessageCount() {
+		return eventHandler.map[getReceivePoolSize(it)].reduce[a, b | a + b] + 1;
+	}
+	
 	override generateSetup() {
+		val zeroCopy = eventHandler.exists[getReceivePoolSize(it) > 0];
+		val asyncPublish = getPublishWindow(setup) > 0;
 		return codeFragmentProvider.create('''
 			int exception = MQTTClient_create(&client, «setup.getConfigurationItemValue("url").code», «setup.getConfigurationItemValue("clientId").code», MQTTCLIENT_PERSISTENCE_NONE, NULL);
 			if(exception != 0) {
@@ -47,18 +152,81 @@ class MqttGenerator extends AbstractSystemResourceGenerator implements IMakefile
 			}
 			conn_opts.keepAliveInterval = «setup.getConfigurationItemValueOrDefault("keepAliveInterval").code»;
 			conn_opts.cleansession = «setup.getConfigurationItemValueOrDefault("cleanSession").code»;
-			MQTTClient_setCallbacks(client, NULL, NULL, messageArrivedCb, NULL);
+			«IF asyncPublish»
+				conn_opts.maxInflightMessages = «getPublishWindow(setup)»;
+				MQTTClient_setCallbacks(client, NULL, connectionLostCb, messageArrivedCb, deliveryCompleteCb);
+			«ELSE»
+				MQTTClient_setCallbacks(client, NULL, NULL, messageArrivedCb, NULL);
+			«ENDIF»
 		''').setPreamble('''
 			MQTTClient client;
 			MQTTClient_connectOptions conn_opts = MQTTClient_connectOptions_initializer;
 			MQTTClient_deliveryToken token;
 			
+			«IF asyncPublish»
+				«generateAsyncPublishPreamble()»
+			«ENDIF»
+			
 			«FOR signalInstance: setup.signalInstances»
 				char «signalInstance.name»TopicBuf[] = «ModelUtils.getArgumentValue(signalInstance, "name").code»;
 			«ENDFOR»
 			«FOR handler: eventHandler»
 				extern ringbuffer_array_char rb_«handler.handlerName»;
 			«ENDFOR»
+			«IF zeroCopy»
+				
+				#if defined(__GNUC__)
+				#define MITA_MQTT_RETAIN(references) __atomic_add_fetch(&(references), 1, __ATOMIC_RELAXED)
+				#define MITA_MQTT_RELEASE(references) __atomic_sub_fetch(&(references), 1, __ATOMIC_ACQ_REL)
+				#else
+				#define MITA_MQTT_RETAIN(references) (++(references))
+				#define MITA_MQTT_RELEASE(references) (--(references))
+				#endif
+				
+				typedef struct {
+					MQTTClient_message* message;
+					// 0 if this entry is free. Only the MQTT client thread takes free entries.
+					uint32_t references;
+				} Mita_MqttReceivedMessage;
+				
+				static Mita_MqttReceivedMessage Mita_mqttReceivedMessages[«receivedMessageCount»];
+				
+				static Mita_MqttReceivedMessage* Mita_mqttTakeReceivedMessage(MQTTClient_message* message) {
+					for(uint32_t i = 0; i < «receivedMessageCount»; i++) {
+						if(RINGBUFFER_LOAD(Mita_mqttReceivedMessages[i].references) == 0) {
+							Mita_mqttReceivedMessages[i].message = message;
+							// held by messageArrivedCb until all handlers got their reference
+							RINGBUFFER_STORE(Mita_mqttReceivedMessages[i].references, 1);
+							return &Mita_mqttReceivedMessages[i];
+						}
+					}
+					return NULL;
+				}
+				
+				static void Mita_mqttReleaseMessage(Mita_MqttReceivedMessage* received) {
+					// the entry may be taken again as soon as its references drop to 0
+					MQTTClient_message* message = received->message;
+					if(MITA_MQTT_RELEASE(received->references) == 0) {
+						MQTTClient_freeMessage(&message);
+					}
+				}
+				«FOR handler: eventHandler.filter[getReceivePoolSize(it) > 0]»
+					
+					// messages rb_«handler.handlerName» refers to, indexed like its data. Written by the MQTT client thread.
+					static Mita_MqttReceivedMessage* «handler.handlerName»_received[«getReceivePoolSize(handler)»];
+					// index of the oldest message still in use by «handler.handlerName». Written by the thread running the handler.
+					static uint32_t «handler.handlerName»_released = 0;
+					
+					void Mita_mqttRelease_«handler.handlerName»(void) {
+						uint32_t released = «handler.handlerName»_released;
+						while(released != rb_«handler.handlerName».read) {
+							Mita_mqttReleaseMessage(«handler.handlerName»_received[ringbuffer_mask(released, rb_«handler.handlerName».capacity)]);
+							released = ringbuffer_increment(released, rb_«handler.handlerName».capacity);
+						}
+						RINGBUFFER_STORE(«handler.handlerName»_released, released);
+					}
+				«ENDFOR»
+			«ENDIF»
 			
 			int messageArrivedCb(void* context, char* topicName, int topicLen, MQTTClient_message* message) {
 				array_char msg = (array_char) {
@@ -70,22 +238,44 @@ class MqttGenerator extends AbstractSystemResourceGenerator implements IMakefile
 				if(topicLen == 0) {
 					topicLen = strlen(topicName);
 				}
+				«IF zeroCopy»
+					Mita_MqttReceivedMessage* received = Mita_mqttTakeReceivedMessage(message);
+					if(received == NULL) {
+						MQTTClient_freeMessage(&message);
+						MQTTClient_free(topicName);
+						return 1;
+					}
+				«ENDIF»
 				«FOR handler: eventHandler»
 					if(exception == 0 && strlen(«getHandlerTopic(handler)») == topicLen && 0 == memcmp(topicName, «getHandlerTopic(handler)», topicLen)) {
-						«pushGenerator.generate(
-							handler,
-							new CodeWithContext(RingbufferGenerator.wrapInRingbuffer(typeRegistry, handler, BaseUtils.getType(handler.event.castOrNull(SystemEventSource))), Optional.empty, codeFragmentProvider.create('''rb_«handler.handlerName»''')),
-							codeFragmentProvider.create('''msg''')
-						)»
-						«handler.handlerName»_flag = 1;
+						«IF getReceivePoolSize(handler) > 0»
+							«generateReceiveWithoutCopy(handler)»
+						«ELSE»
+							«pushGenerator.generate(
+								handler,
+								new CodeWithContext(RingbufferGenerator.wrapInRingbuffer(typeRegistry, handler, BaseUtils.getType(handler.event.castOrNull(SystemEventSource))), Optional.empty, codeFragmentProvider.create('''rb_«handler.handlerName»''')),
+								codeFragmentProvider.create('''msg''')
+							)»
+							«handler.handlerName»_flag = 1;
+							«IF eventLoopGenerator.isEventDriven(context)»
+								Mita_notifyEventLoop();
+							«ENDIF»
+						«ENDIF»
 					}
 				«ENDFOR»
 				MQTTClient_free(topicName);
-				return exception;
+				«IF zeroCopy»
+					Mita_mqttReleaseMessage(received);
+					// the message is owned by the handlers now, so the client must not deliver it again
+					return 1;
+				«ELSE»
+					return exception;
+				«ENDIF»
 			}
 		''').addHeader("MQTTClient.h", false)
 			.addHeader("MitaEvents.h", false)
 			.addHeader("string.h", true)
+			.addHeader("stdlib.h", true)
 	}
 	
 	override generateEnable() {
@@ -109,6 +299,38 @@ class MqttGenerator extends AbstractSystemResourceGenerator implements IMakefile
 	}
 	
 	override generateSignalInstanceSetter(SignalInstance signalInstance, String valueVariableName) {
+		if(getPublishWindow(setup) > 0) {
+			return codeFragmentProvider.create('''
+				int exception = MQTTCLIENT_SUCCESS;
+				MQTTClient_deliveryToken publishToken;
+				
+				MQTTClient_message pubmsg = MQTTClient_message_initializer;
+				pubmsg.payload = «valueVariableName»->data;
+				pubmsg.payloadlen = «valueVariableName»->length;
+				pubmsg.qos = «ModelUtils.getArgumentValue(signalInstance, "qos").code»;
+				pubmsg.retained = 0;
+				
+				pthread_mutex_lock(&Mita_mqttPublishMutex);
+				while(Mita_mqttPublishFailure == MQTTCLIENT_SUCCESS && Mita_mqttInFlightCount >= «getPublishWindow(setup)») {
+					pthread_cond_wait(&Mita_mqttPublishCondition, &Mita_mqttPublishMutex);
+				}
+				exception = Mita_mqttPublishFailure;
+				Mita_mqttPublishFailure = MQTTCLIENT_SUCCESS;
+				// there is no acknowledgement for QoS 0. The slot is reserved before publishing, since the delivery might be reported before publishing returns.
+				if(exception == MQTTCLIENT_SUCCESS && pubmsg.qos > 0) {
+					Mita_mqttInFlightCount++;
+				}
+				pthread_mutex_unlock(&Mita_mqttPublishMutex);
+				
+				if(exception == MQTTCLIENT_SUCCESS) {
+					exception = MQTTClient_publishMessage(client, «signalInstance.name»TopicBuf, &pubmsg, &publishToken);
+					if(exception != MQTTCLIENT_SUCCESS && pubmsg.qos > 0) {
+						Mita_mqttReleasePublishSlot();
+					}
+				}
+				return exception;
+			''');
+		}
 		return codeFragmentProvider.create('''
 			uint32_t exception = 0;
 			
@@ -15,6 +15,7 @@
 package org.eclipse.mita.platform.x86.platform
 
 import com.google.inject.Inject
+import org.eclipse.mita.platform.x86.connectivity.MqttGenerator
 import org.eclipse.mita.program.EventHandlerDeclaration
 import org.eclipse.mita.program.SystemEventSource
 import org.eclipse.mita.program.TimeIntervalEvent
@@ -23,6 +24,7 @@ import org.eclipse.mita.program.generator.CodeFragmentProvider
 import org.eclipse.mita.program.generator.CompilationContext
 import org.eclipse.mita.program.generator.GeneratorUtils
 import org.eclipse.mita.program.generator.IPlatformEventLoopGenerator
+import org.eclipse.mita.program.inferrer.StaticValueInferrer
 import org.eclipse.mita.program.model.ModelUtils
 
 class EventLoopGenerator implements IPlatformEventLoopGenerator {
@@ -33,6 +35,30 @@ class EventLoopGenerator implements IPlatformEventLoopGenerator {
 	@Inject 
 	protected extension GeneratorUtils
 	
+	/**
+	 * @returns true if the event loop waits for events instead of polling for them (see x86.eventDriven).
+	 */
+	def boolean isEventDriven(CompilationContext context) {
+		return StaticValueInferrer.infer(context.getPlatformConfigurationItem("eventDriven"), []) == true;
+	}
+	
+	/**
+	 * @returns the number of threads event handlers are dispatched to (see x86.workerThreads), 0 if they run on the main thread.
+	 */
+	def long getWorkerThreads(CompilationContext context) {
+		val workerThreads = StaticValueInferrer.infer(context.getPlatformConfigurationItem("workerThreads"), []);
+		return if(workerThreads instanceof Long) workerThreads else 0;
+	}
+	
+	def boolean usesThreads(CompilationContext context) {
+		return context.eventDriven || context.workerThreads > 0;
+	}
+	
+	protected def getPlatformConfigurationItem(CompilationContext context, String name) {
+		val platformSetup = context.allSystemResourceSetup.findFirst[it.type?.name == "x86"];
+		return platformSetup?.getConfigurationItemValueOrDefault(name);
+	}
+	
 	public def generateEventloopInject(String functionName, String userParam1, String userParam2) {
 		return codeFragmentProvider.create('''
 			«functionName»();
@@ -60,6 +86,10 @@ class EventLoopGenerator implements IPlatformEventLoopGenerator {
 				«val period = ModelUtils.getIntervalInMilliseconds(handler.event as TimeIntervalEvent)»
 				int32_t lastTick«period.toString.toFirstUpper»;
 			«ENDFOR»
+			«IF context.eventDriven»
+				
+				void Mita_notifyEventLoop(void);
+			«ENDIF»
 		''')
 		.addHeader("stdbool.h", true);
 	}
@@ -85,6 +115,14 @@ class EventLoopGenerator implements IPlatformEventLoopGenerator {
 		return CodeFragment.EMPTY;
 	}
 	override CodeFragment generateEventLoopHandlerEpilogue(CompilationContext context, EventHandlerDeclaration declaration) {
+		if(MqttGenerator.getReceivePoolSize(declaration) > 0) {
+			// the handler is done with the MQTT messages it popped
+			return codeFragmentProvider.create('''
+				Mita_mqttRelease_«declaration.handlerName»();
+			''').setPreamble('''
+				void Mita_mqttRelease_«declaration.handlerName»(void);
+			''');
+		}
 		return CodeFragment.EMPTY 
 	}
 }
@@ -19,18 +19,24 @@ import org.eclipse.mita.program.generator.CompilationContext
 import org.eclipse.mita.program.generator.PlatformMakefileGenerator
 import org.eclipse.mita.program.resource.PluginResourceLoader
 import org.eclipse.mita.platform.x86.IMakefileParticipant
+import org.eclipse.mita.platform.x86.connectivity.MqttGenerator
 
 class MakefileGenerator extends PlatformMakefileGenerator {
 	@Inject
 	protected PluginResourceLoader pluginLoader;
 	
+	@Inject
+	protected EventLoopGenerator eventLoopGenerator;
+	
 	override generateMakefile(CompilationContext context, List<String> sourceFiles) {
 		val loadedLibraries = context.allSystemResourceSetup.map[it.type].map[pluginLoader.loadFromPlugin(it.eResource, it.generator)].filter(IMakefileParticipant).flatMap[it.libraries].map["-l" + it];
+		val usesThreads = eventLoopGenerator.usesThreads(context) || context.allSystemResourceSetup.exists[MqttGenerator.getPublishWindow(it) > 0];
+		val threadLibraries = if(usesThreads) #["-lpthread"] else #[];
 		return codeFragmentProvider.create('''
 		export CC=gcc
 		export CCFLAGS=-Wall -std=c99 -D_POSIX_C_SOURCE=199309L -D_DEFAULT_SOURCE -g
 		export BUILDDIR=./build
-		export LDFLAGS=-L../lib «loadedLibraries.join(" ")»
+		export LDFLAGS=-L../lib «(loadedLibraries + threadLibraries).join(" ")»
 		export SOURCE_INCLUDES = -I. -I./base -I../include
 		export SOURCE_DIR=.
 		export SOURCE_FILES = \
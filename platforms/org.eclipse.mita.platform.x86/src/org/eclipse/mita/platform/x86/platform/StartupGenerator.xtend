@@ -18,8 +18,10 @@ import java.util.Optional
 import org.eclipse.mita.base.util.BaseUtils
 import org.eclipse.mita.library.stdlib.RingbufferGenerator
 import org.eclipse.mita.library.stdlib.RingbufferGenerator.PushGenerator
+import org.eclipse.mita.program.EventHandlerDeclaration
 import org.eclipse.mita.program.SystemEventSource
 import org.eclipse.mita.program.TimeIntervalEvent
+import org.eclipse.mita.program.generator.CodeFragment
 import org.eclipse.mita.program.generator.CodeFragmentProvider
 import org.eclipse.mita.program.generator.CodeWithContext
 import org.eclipse.mita.program.generator.CompilationContext
@@ -42,29 +44,19 @@ class StartupGenerator implements IPlatformStartupGenerator {
 	@Inject
 	StdlibTypeRegistry typeRegistry
 	
+	@Inject
+	protected EventLoopGenerator eventLoopGenerator
+	
 	override generateMain(CompilationContext context) {
-		val startupEventHandlersAndEvents = context.allEventHandlers
-			.map[it -> it.event]
-			.filter[it.value instanceof SystemEventSource]
-			.map[it.key -> it.value as SystemEventSource]
-			.filter[it.value.source.name == "startup"]
-		return codeFragmentProvider.create('''
+		if(eventLoopGenerator.isEventDriven(context)) {
+			return generateEventDrivenMain(context);
+		}
+		val result = codeFragmentProvider.create('''
 			Mita_initialize();
 			Mita_goLive();
 			int32_t exception = 0;
-			«FOR startupEventHandler_event: startupEventHandlersAndEvents»
-				«val startupEventHandler = startupEventHandler_event.key»
-				«val event = startupEventHandler_event.value»
-				«pushGenerator.generate(
-					startupEventHandler,
-					new CodeWithContext(
-						RingbufferGenerator.wrapInRingbuffer(typeRegistry, startupEventHandler, BaseUtils.getType(event)), 
-						Optional.empty, 
-						codeFragmentProvider.create('''rb_«startupEventHandler.handlerName»''')
-					),
-					codeFragmentProvider.create('''getTime()''')
-				)»
-			«ENDFOR»
+			«generateWorkerStart(context)»
+			«generateStartupEvents(context)»
 			while(1) {
 				int32_t now = getTime();
 				«FOR handler : context.allEventHandlers»
@@ -73,13 +65,13 @@ class StartupGenerator implements IPlatformStartupGenerator {
 					«val period = ModelUtils.getIntervalInMilliseconds(evt)»
 					if(now - lastTick«period.toString.toFirstUpper» >= «period.toString») {
 						lastTick«period.toString.toFirstUpper» += «period.toString»;
-						«evt.handlerName»();
+						«generateHandlerCall(context, handler)»
 						fflush(stdout);
 					}
 				«ELSE»
 					if(«handler.handlerName»_flag) {
 						«handler.handlerName»_flag = false;
-						«evt.handlerName»();
+						«generateHandlerCall(context, handler)»
 					}
 				«ENDIF»
 				«ENDFOR»
@@ -88,14 +80,293 @@ class StartupGenerator implements IPlatformStartupGenerator {
 			return 0;
 		''')
 		.setPreamble('''
-			«FOR startupEventHandler_event: startupEventHandlersAndEvents»					
-				extern ringbuffer_uint32_t rb_«startupEventHandler_event.key.handlerName»;
+			«generateStartupEventsPreamble(context)»
+			«generateWorkerPool(context)»
+		''')
+		.addHeader('time.h', true)
+		.addHeader('stdio.h', true)
+		.addHeader('stdbool.h', true)
+		.addHeader("MitaEvents.h", false);
+		if(eventLoopGenerator.usesThreads(context)) {
+			result.addHeader('pthread.h', true);
+		}
+		return result;
+	}
+	
+	/**
+	 * Generates a main function which sleeps until either Mita_notifyEventLoop is called or the next time event is due.
+	 * Time events are kept in a binary min-heap ordered by their next deadline.
+	 */
+	protected def generateEventDrivenMain(CompilationContext context) {
+		val timeHandlers = context.allEventHandlers.filter[it.event instanceof TimeIntervalEvent].toList;
+		val otherHandlers = context.allEventHandlers.filter[!(it.event instanceof TimeIntervalEvent)].toList;
+		return codeFragmentProvider.create('''
+			Mita_initialize();
+			Mita_goLive();
+			int32_t exception = 0;
+			«generateWorkerStart(context)»
+			«generateStartupEvents(context)»
+			«FOR handler : timeHandlers»
+				«val period = ModelUtils.getIntervalInMilliseconds(handler.event as TimeIntervalEvent)»
+				Mita_scheduleTimer(«timeHandlers.indexOf(handler)», lastTick«period.toString.toFirstUpper» + «period», «period»);
 			«ENDFOR»
+			while(1) {
+				Mita_waitForEvent();
+				«FOR handler : otherHandlers»
+					if(«handler.handlerName»_flag) {
+						«handler.handlerName»_flag = false;
+						«generateHandlerCall(context, handler)»
+					}
+				«ENDFOR»
+				«IF !timeHandlers.empty»
+					uint32_t now = getTime();
+					// fire at most as many timers as there are per pass, so late timers can't starve other events.
+					// A timer which is several periods late can take more than one of these firings, the rest are caught up in the next passes.
+					for(uint32_t fired = 0; fired < Mita_timerCount && (int32_t) (now - Mita_timers[0].deadline) >= 0; fired++) {
+						uint32_t id = Mita_timers[0].id;
+						Mita_timers[0].deadline += Mita_timers[0].period;
+						Mita_timerSiftDown(0);
+						switch(id) {
+							«FOR handler : timeHandlers»
+								case «timeHandlers.indexOf(handler)»:
+									«generateHandlerCall(context, handler)»
+									break;
+							«ENDFOR»
+						}
+						fflush(stdout);
+					}
+				«ENDIF»
+			}
+			return 0;
 		''')
+		.setPreamble('''
+			«generateStartupEventsPreamble(context)»
+			«generateWorkerPool(context)»
+			
+			static pthread_mutex_t Mita_eventLock = PTHREAD_MUTEX_INITIALIZER;
+			static pthread_cond_t Mita_eventSignal = PTHREAD_COND_INITIALIZER;
+			static bool Mita_eventPending = true;
+			
+			«IF !timeHandlers.empty»
+				typedef struct {
+					uint32_t deadline;
+					uint32_t period;
+					uint32_t id;
+				} Mita_Timer;
+				
+				static Mita_Timer Mita_timers[«timeHandlers.size»];
+				static uint32_t Mita_timerCount = 0;
+				
+				static bool Mita_timerBefore(uint32_t a, uint32_t b) {
+					return (int32_t) (Mita_timers[a].deadline - Mita_timers[b].deadline) < 0;
+				}
+				
+				static void Mita_timerSwap(uint32_t a, uint32_t b) {
+					Mita_Timer tmp = Mita_timers[a];
+					Mita_timers[a] = Mita_timers[b];
+					Mita_timers[b] = tmp;
+				}
+				
+				static void Mita_timerSiftDown(uint32_t i) {
+					while(1) {
+						uint32_t first = i;
+						uint32_t left = 2 * i + 1;
+						uint32_t right = 2 * i + 2;
+						if(left < Mita_timerCount && Mita_timerBefore(left, first)) {
+							first = left;
+						}
+						if(right < Mita_timerCount && Mita_timerBefore(right, first)) {
+							first = right;
+						}
+						if(first == i) {
+							return;
+						}
+						Mita_timerSwap(i, first);
+						i = first;
+					}
+				}
+				
+				static void Mita_scheduleTimer(uint32_t id, uint32_t deadline, uint32_t period) {
+					uint32_t i = Mita_timerCount++;
+					Mita_timers[i] = (Mita_Timer) { .deadline = deadline, .period = period, .id = id };
+					while(i > 0 && Mita_timerBefore(i, (i - 1) / 2)) {
+						Mita_timerSwap(i, (i - 1) / 2);
+						i = (i - 1) / 2;
+					}
+				}
+				
+			«ENDIF»
+			void Mita_notifyEventLoop(void) {
+				pthread_mutex_lock(&Mita_eventLock);
+				Mita_eventPending = true;
+				pthread_cond_signal(&Mita_eventSignal);
+				pthread_mutex_unlock(&Mita_eventLock);
+			}
+			
+			static void Mita_waitForEvent(void) {
+				pthread_mutex_lock(&Mita_eventLock);
+				while(!Mita_eventPending) {
+					«IF timeHandlers.empty»
+						pthread_cond_wait(&Mita_eventSignal, &Mita_eventLock);
+					«ELSE»
+						int32_t wait = (int32_t) (Mita_timers[0].deadline - getTime());
+						if(wait <= 0) {
+							break;
+						}
+						struct timespec timeout;
+						clock_gettime(CLOCK_REALTIME, &timeout);
+						timeout.tv_sec += wait / 1000;
+						timeout.tv_nsec += (wait % 1000) * 1000000L;
+						if(timeout.tv_nsec >= 1000000000L) {
+							timeout.tv_sec += 1;
+							timeout.tv_nsec -= 1000000000L;
+						}
+						pthread_cond_timedwait(&Mita_eventSignal, &Mita_eventLock, &timeout);
+					«ENDIF»
+				}
+				Mita_eventPending = false;
+				pthread_mutex_unlock(&Mita_eventLock);
+			}
+		''')
+		.addHeader('pthread.h', true)
 		.addHeader('time.h', true)
 		.addHeader('stdio.h', true)
 		.addHeader('stdbool.h', true)
 		.addHeader("MitaEvents.h", false);
 	}
+	
+	protected def getStartupEventHandlersAndEvents(CompilationContext context) {
+		return context.allEventHandlers
+			.map[it -> it.event]
+			.filter[it.value instanceof SystemEventSource]
+			.map[it.key -> it.value as SystemEventSource]
+			.filter[it.value.source.name == "startup"]
+	}
+	
+	protected def generateStartupEvents(CompilationContext context) {
+		return codeFragmentProvider.create('''
+			«FOR startupEventHandler_event: context.startupEventHandlersAndEvents»
+				«val startupEventHandler = startupEventHandler_event.key»
+				«val event = startupEventHandler_event.value»
+				«pushGenerator.generate(
+					startupEventHandler,
+					new CodeWithContext(
+						RingbufferGenerator.wrapInRingbuffer(typeRegistry, startupEventHandler, BaseUtils.getType(event)), 
+						Optional.empty, 
+						codeFragmentProvider.create('''rb_«startupEventHandler.handlerName»''')
+					),
+					codeFragmentProvider.create('''getTime()''')
+				)»
+			«ENDFOR»
+		''');
+	}
+	
+	protected def generateStartupEventsPreamble(CompilationContext context) {
+		return codeFragmentProvider.create('''
+			«FOR startupEventHandler_event: context.startupEventHandlersAndEvents»					
+				extern ringbuffer_uint32_t rb_«startupEventHandler_event.key.handlerName»;
+			«ENDFOR»
+		''');
+	}
+	
+	protected def boolean usesWorkerPool(CompilationContext context) {
+		return eventLoopGenerator.getWorkerThreads(context) > 0 && !context.allEventHandlers.empty;
+	}
+	
+	/**
+	 * Calls handler directly or, with a worker pool, dispatches it to the pool.
+	 */
+	protected def generateHandlerCall(CompilationContext context, EventHandlerDeclaration handler) {
+		if(context.usesWorkerPool) {
+			return codeFragmentProvider.create('''Mita_dispatchHandler(«context.allEventHandlers.toList.indexOf(handler)»);''');
+		}
+		return codeFragmentProvider.create('''«handler.handlerName»();''');
+	}
+	
+	protected def generateWorkerStart(CompilationContext context) {
+		if(!context.usesWorkerPool) {
+			return CodeFragment.EMPTY;
+		}
+		return codeFragmentProvider.create('''Mita_startWorkers();''');
+	}
+	
+	/**
+	 * Generates a pool of worker threads which run dispatched handlers.
+	 * Each handler counts its pending events and is queued or running at most once,
+	 * so it never runs concurrently with itself and pops its ringbuffer in order.
+	 */
+	protected def generateWorkerPool(CompilationContext context) {
+		if(!context.usesWorkerPool) {
+			return CodeFragment.EMPTY;
+		}
+		val handlers = context.allEventHandlers.toList;
+		val workerThreads = eventLoopGenerator.getWorkerThreads(context);
+		return codeFragmentProvider.create('''
+			static pthread_t Mita_workers[«workerThreads»];
+			static pthread_mutex_t Mita_workLock = PTHREAD_MUTEX_INITIALIZER;
+			static pthread_cond_t Mita_workAvailable = PTHREAD_COND_INITIALIZER;
+			static uint32_t Mita_workQueue[«handlers.size»];
+			static uint32_t Mita_workRead = 0;
+			static uint32_t Mita_workCount = 0;
+			static uint32_t Mita_handlerPending[«handlers.size»];
+			
+			static void Mita_runHandler(uint32_t id) {
+				switch(id) {
+					«FOR handler : handlers»
+						case «handlers.indexOf(handler)»:
+							«handler.handlerName»();
+							break;
+					«ENDFOR»
+				}
+				fflush(stdout);
+			}
+			
+			// requires Mita_workLock to be held
+			static void Mita_enqueueHandler(uint32_t id) {
+				Mita_workQueue[(Mita_workRead + Mita_workCount) % «handlers.size»] = id;
+				Mita_workCount++;
+				pthread_cond_signal(&Mita_workAvailable);
+			}
+			
+			static void Mita_dispatchHandler(uint32_t id) {
+				pthread_mutex_lock(&Mita_workLock);
+				Mita_handlerPending[id]++;
+				if(Mita_handlerPending[id] == 1) {
+					Mita_enqueueHandler(id);
+				}
+				pthread_mutex_unlock(&Mita_workLock);
+			}
+			
+			static void* Mita_worker(void* arg) {
+				(void) arg;
+				while(1) {
+					pthread_mutex_lock(&Mita_workLock);
+					while(Mita_workCount == 0) {
+						pthread_cond_wait(&Mita_workAvailable, &Mita_workLock);
+					}
+					uint32_t id = Mita_workQueue[Mita_workRead];
+					Mita_workRead = (Mita_workRead + 1) % «handlers.size»;
+					Mita_workCount--;
+					pthread_mutex_unlock(&Mita_workLock);
+					
+					Mita_runHandler(id);
+					
+					pthread_mutex_lock(&Mita_workLock);
+					Mita_handlerPending[id]--;
+					if(Mita_handlerPending[id] > 0) {
+						Mita_enqueueHandler(id);
+					}
+					pthread_mutex_unlock(&Mita_workLock);
+				}
+				return NULL;
+			}
+			
+			static void Mita_startWorkers(void) {
+				for(uint32_t i = 0; i < «workerThreads»; i++) {
+					pthread_create(&Mita_workers[i], NULL, Mita_worker, NULL);
+				}
+			}
+		''');
+	}
 
 }
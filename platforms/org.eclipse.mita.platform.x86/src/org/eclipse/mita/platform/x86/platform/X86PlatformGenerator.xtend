@@ -1,12 +1,15 @@
 package org.eclipse.mita.platform.x86.platform
 
+import org.eclipse.mita.platform.x86.connectivity.MqttGenerator
 import org.eclipse.mita.program.generator.MainSystemResourceGenerator
 import org.eclipse.mita.program.EventHandlerDeclaration
 
 class X86PlatformGenerator extends MainSystemResourceGenerator {
 	
 	override getEventHandlerPayloadQueueSize(EventHandlerDeclaration handler) {
-		return 2L;
+		// messages received without copying them stay in the ringbuffer until the handler released them
+		val receivePoolSize = MqttGenerator.getReceivePoolSize(handler);
+		return if(receivePoolSize > 0) receivePoolSize else 2L;
 	}
 	
 	override generateSetup() {